@@ -2,7 +2,10 @@ package datastructures;
 
 import java.io.Serializable;
 import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
 
 public class DS_GenericList<K> implements Iterable<K>, Serializable
 {
@@ -10,64 +13,35 @@ public class DS_GenericList<K> implements Iterable<K>, Serializable
 	// Serialisation ID required by the JGraphX package
 	private static final long serialVersionUID = 1L;
 
-	private class Item implements Serializable
+	private class ItemIterator implements Iterator<K>
 	{
-		// Serialisation ID required by the JGraphX package
-		private static final long serialVersionUID = -2671831338657982908L;
-
-		// Object that holds the data of the item
-		private K object;
+		// Index of the item next() returns
+		private int cursor;
 
-		// Next item in the list
-		public Item next;
+		// Item last returned by next() (null before the first call or once it was removed)
+		private Object current;
 
 		/**
-		 * Item constructor
-		 * @param obj to associate this Item with
-		 */
-		public Item(K obj)
-		{
-			this.object = obj;
-			this.next = null;
-		}
-
-		/**
-		 * Create an empty item with a 'next' Item (used for the Iterator)
-		 * @param next item in the list
-		 */
-		public Item(Item next)
-		{
-			this.object = null;
-			this.next = next;
-		}
-
-		/**
-		 * Accessing method for the data in the item
-		 * @return the object associated with this item
+		 * ItemIterator constructor
 		 */
-		public K getData()
+		public ItemIterator()
 		{
-			return this.object;
+			this.cursor = 0;
+			this.current = null;
 		}
-	}
-
-	private class ItemIterator implements Iterator<K>
-	{
-		// Object that holds the current item
-		private Item current;
-
-		// List object (used for removal)
-		private DS_GenericList<K> list;
 
 		/**
-		 * ItemIterator constructor
-		 * @param first item to start the iterator off with
-		 * @param list that the iterator will use
+		 * Step back if the current item was removed from the list behind the iterator's back
+		 * (the items after it moved down one slot, so the next one would be skipped otherwise)
+		 * The removal is consumed, so calling this again doesn't step back further
 		 */
-		public ItemIterator(Item first, DS_GenericList<K> list)
+		private void resync()
 		{
-			this.current = first;
-			this.list = list;
+			DS_GenericList<K> list = DS_GenericList.this;
+			if(this.current != null && (this.cursor > list.numberOfItems || list.items[this.cursor - 1] != this.current)) {
+				this.cursor--;
+				this.current = null;
+			}
 		}
 
 		/**
@@ -76,22 +50,22 @@ public class DS_GenericList<K> implements Iterable<K>, Serializable
 		 */
 		public boolean hasNext()
 		{
-			if(this.current == null || this.current.next == null)
-				return false;
-			else
-				return true;
+			this.resync();
+			return this.cursor < DS_GenericList.this.numberOfItems;
 		}
 
 		/**
 		 * Get the data of the following item in the iteration
 		 * @return the data of the next item
 		 */
+		@SuppressWarnings("unchecked")
 		public K next()
 		{
-			if(this.current == null) return null;
-			this.current = this.current.next;
-			if(this.current == null) return null;
-			return this.current.getData();
+			this.resync();
+			if(this.cursor >= DS_GenericList.this.numberOfItems)
+				throw new NoSuchElementException();
+			this.current = DS_GenericList.this.items[this.cursor++];
+			return (K)this.current;
 		}
 
 		/**
@@ -99,17 +73,19 @@ public class DS_GenericList<K> implements Iterable<K>, Serializable
 		 */
 		public void remove()
 		{
-			Item temp = this.current.next;
-			this.list.remove(this.current.getData());
-			this.current = temp;
+			this.resync();
+			if(this.current == null)
+				throw new IllegalStateException();
+			DS_GenericList.this.removeAt(--this.cursor);
+			this.current = null;
 		}
 	}
 
 	// Integer variable to hold the number of items stored in the list
 	private int numberOfItems;
 
-	// Variable to hold the first item in the list
-	private Item first;
+	// Items of the list in insertion order (slots from numberOfItems onwards are free)
+	private Object[] items;
 
 	/**
 	 * Basic constructor for the GenericList class
@@ -117,7 +93,7 @@ public class DS_GenericList<K> implements Iterable<K>, Serializable
 	public DS_GenericList()
 	{
 		this.numberOfItems = 0;
-		this.first = null;
+		this.items = new Object[4];
 	}
 
 	/**
@@ -126,7 +102,7 @@ public class DS_GenericList<K> implements Iterable<K>, Serializable
 	 */
 	public boolean isEmpty()
 	{
-		return this.first == null;
+		return this.numberOfItems == 0;
 	}
 
 	/**
@@ -139,7 +115,20 @@ public class DS_GenericList<K> implements Iterable<K>, Serializable
 	}
 
 	/**
-	 * Add an object to the list
+	 * Get an item from its position in the list
+	 * @param index of the item (0 for the first one)
+	 * @return the item
+	 */
+	@SuppressWarnings("unchecked")
+	public K get(int index)
+	{
+		if(index < 0 || index >= this.numberOfItems)
+			throw new IndexOutOfBoundsException("Index " + index + " of a list of " + this.numberOfItems);
+		return (K)this.items[index];
+	}
+
+	/**
+	 * Add an object to the end of the list (in constant amortised time)
 	 * @param obj to add
 	 * @return whether or not the object was added
 	 */
@@ -147,58 +136,72 @@ public class DS_GenericList<K> implements Iterable<K>, Serializable
 	{
 		if(obj == null) return false;
 
-		Item i = new Item(obj);
-		Item t = this.first;
-
-		if(t == null) {
-			this.first = i;
-		} else {
-			while(t.next != null)
-				t = t.next;
-			t.next = i;
-		}
-
-		this.numberOfItems++;
+		if(this.numberOfItems == this.items.length)
+			this.items = Arrays.copyOf(this.items, this.numberOfItems * 2);
+		this.items[this.numberOfItems++] = obj;
 
 		return true;
 	}
 
 	/**
-	 * Remove an object from the list
+	 * Remove an object from the list (the object itself, not one that equals it)
 	 * @param obj to remove from the list
 	 * @return whether or not it was removed
 	 */
 	public boolean remove(K obj)
 	{
-		if(this.first == null || obj == null) return false;
-
-		Item t = this.first;
-
-		if(t.getData() == obj) {
-			this.first = t.next;
-		} else {
-			while(t.next != null) {
-				if(t.next.getData() == obj) {
-					t.next = t.next.next;
-					break;
-				} else {
-					t = t.next;
-				}
+		if(obj == null) return false;
+
+		for(int i = 0; i < this.numberOfItems; i++) {
+			if(this.items[i] == obj) {
+				this.removeAt(i);
+				return true;
 			}
 		}
 
-		this.numberOfItems--;
+		return false;
+	}
 
+	/**
+	 * Remove several objects from the list in a single pass (the objects themselves, the order is kept)
+	 * @param objects to remove from the list
+	 * @return whether or not any was removed
+	 */
+	public boolean removeAll(DS_GenericList<K> objects)
+	{
+		IdentityHashMap<Object, Object> removed = new IdentityHashMap<Object, Object>();
+		for(int i = 0; i < objects.numberOfItems; i++)
+			removed.put(objects.items[i], objects.items[i]);
+
+		int kept = 0;
+		for(int i = 0; i < this.numberOfItems; i++)
+			if(removed.containsKey(this.items[i]) == false)
+				this.items[kept++] = this.items[i];
+		if(kept == this.numberOfItems) return false;
+
+		Arrays.fill(this.items, kept, this.numberOfItems, null);
+		this.numberOfItems = kept;
 		return true;
 	}
 
+	/**
+	 * Remove the item at a position, the following items move down one slot (keeps the order)
+	 * @param index of the item
+	 */
+	private void removeAt(int index)
+	{
+		System.arraycopy(this.items, index + 1, this.items, index, this.numberOfItems - index - 1);
+		this.items[--this.numberOfItems] = null;
+	}
+
 	/**
 	 * Get an iterator for this list
+	 * (removing the current item, through the iterator or the list, doesn't skip the next one)
 	 * @return Iterator object initialised to this list
 	 */
 	public Iterator<K> iterator()
 	{
-		return new ItemIterator(new Item(this.first), this);
+		return new ItemIterator();
 	}
 
 	/**
@@ -210,9 +213,7 @@ public class DS_GenericList<K> implements Iterable<K>, Serializable
 	{
 		@SuppressWarnings("unchecked")
 		K[] result = (K[])Array.newInstance(c, this.size());
-		int index  = 0;
-		for(K k : this)
-			result[index++] = k;
+		System.arraycopy(this.items, 0, result, 0, this.numberOfItems);
 		return result;
 	}
 
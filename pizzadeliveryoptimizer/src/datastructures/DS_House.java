@@ -20,17 +20,11 @@ public class DS_House implements Serializable
     // House position data for the JGraphX library
     private int x, y;
 
-    // Minimum distance to this house
-    private int distance;
-
-    // Has this node been visited
-    private boolean visited;
-
     // Paths that connect this house to other houses
     private DS_GenericList<DS_Path> houses;
 
-	// Shortest path connecting to this house
-	private DS_Path shortest;
+    // Paths that connect other houses to this house (reverse adjacency)
+    private DS_GenericList<DS_Path> incoming;
 
 	/**
 	 * Vertex constructor
@@ -44,32 +38,10 @@ public class DS_House implements Serializable
     	this.y = y;
     	this.id = -1;
         this.setName(name);
-
-        this.distance = -1;
-        this.visited = false;
         this.houses = new DS_GenericList<DS_Path>();
-		this.shortest = null;
+        this.incoming = new DS_GenericList<DS_Path>();
     }
 
-    /**
-     * Clear the content of this House
-     */
-	public void clear()
-	{
-		this.distance = -1;
-		this.visited = false;
-		this.shortest = null;
-	}
-
-	/**
-	 * Determine if the current house object has been cleared or not
-	 * @return true if it is, false otherwise
-	 */
-	public boolean isClear()
-	{
-		return this.distance == -1;
-	}
-
 	/**
 	 * Get of all the paths that go out of this house
 	 * @return list of edges
@@ -89,39 +61,39 @@ public class DS_House implements Serializable
     }
 
     /**
-     * Set this house to the "visited" status
-     * @param visited status
+     * Remove a connecting path
+     * @param path object
      */
-    public void setVisited(boolean visited)
+    public void removePath(DS_Path edge)
     {
-        this.visited = visited;
+        this.houses.remove(edge);
     }
 
-    /**
-     * Determine is this house has been visited
-     * @return the visited status
-     */
-    public boolean isVisited()
+	/**
+	 * Get of all the paths that come into this house
+	 * @return list of edges
+	 */
+    public DS_GenericList<DS_Path> getIncomingPaths()
     {
-        return this.visited;
+        return this.incoming;
     }
 
     /**
-     * Set the minimum distance to this house
-     * @param minimum distance
+     * Add an incoming path
+     * @param path object
      */
-    public void setDistance(int distance)
+    public void addIncomingPath(DS_Path edge)
     {
-        this.distance = distance;
+        this.incoming.add(edge);
     }
 
     /**
-     * Get the minimum distance to this house
-     * @return minimum distance
+     * Remove an incoming path
+     * @param path object
      */
-    public int getDistance()
+    public void removeIncomingPath(DS_Path edge)
     {
-        return this.distance;
+        this.incoming.remove(edge);
     }
 
     /**
@@ -160,24 +132,6 @@ public class DS_House implements Serializable
     	return this.y;
     }
 
-    /**
-     * Set the shortest connecting path to this house
-     * @param v is the shortest path
-     */
-	public void setShortest(DS_Path v)
-	{
-		this.shortest = v;
-	}
-
-	/**
-	 * Get the shortest distance to this house
-	 * @return the shortest distance
-	 */
-	public DS_Path getShortest()
-	{
-		return this.shortest;
-	}
-
 	/**
 	 * Get the name of the house
 	 * @return name of the house
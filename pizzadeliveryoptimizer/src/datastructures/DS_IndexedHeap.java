@@ -0,0 +1,237 @@
+package datastructures;
+
+public class DS_IndexedHeap<K>
+{
+
+	// Item IDs stored in binary heap order
+	private int[] heap;
+
+	// Keys of the items stored in heap order (kept next to the IDs for locality)
+	private int[] keys;
+
+	// Position of every ID in the heap (-1 if the ID is not in the heap)
+	private int[] position;
+
+	// Objects associated with every ID
+	private Object[] items;
+
+	// Number of items currently in the heap
+	private int size;
+
+	/**
+	 * Indexed heap constructor
+	 * @param capacity number of IDs the heap can hold (IDs range from 0 to capacity - 1)
+	 */
+	public DS_IndexedHeap(int capacity)
+	{
+		this.heap = new int[0];
+		this.keys = new int[0];
+		this.position = new int[0];
+		this.items = new Object[0];
+		this.size = 0;
+		this.ensureCapacity(capacity);
+	}
+
+	/**
+	 * Make sure the heap can hold every ID smaller than capacity
+	 * @param capacity number of IDs the heap must be able to hold
+	 */
+	public void ensureCapacity(int capacity)
+	{
+		if(capacity <= this.position.length) return;
+
+		int length = Math.max(capacity, this.position.length * 2);
+		int[] heap = new int[length];
+		int[] keys = new int[length];
+		int[] position = new int[length];
+		Object[] items = new Object[length];
+		System.arraycopy(this.heap, 0, heap, 0, this.size);
+		System.arraycopy(this.keys, 0, keys, 0, this.size);
+		System.arraycopy(this.position, 0, position, 0, this.position.length);
+		System.arraycopy(this.items, 0, items, 0, this.items.length);
+		for(int i = this.position.length; i < length; i++)
+			position[i] = -1;
+
+		this.heap = heap;
+		this.keys = keys;
+		this.position = position;
+		this.items = items;
+	}
+
+	/**
+	 * Determine if the heap is empty
+	 * @return true if it is, false otherwise
+	 */
+	public boolean isEmpty()
+	{
+		return this.size == 0;
+	}
+
+	/**
+	 * Get the number of items in the heap
+	 * @return the number of items
+	 */
+	public int size()
+	{
+		return this.size;
+	}
+
+	/**
+	 * Determine if an ID is currently in the heap
+	 * @param id to look for
+	 * @return true if it is, false otherwise
+	 */
+	public boolean contains(int id)
+	{
+		return id >= 0 && id < this.position.length && this.position[id] >= 0;
+	}
+
+	/**
+	 * Get the current key of an ID in the heap
+	 * @param id to look for (must be in the heap)
+	 * @return the key associated with the ID
+	 */
+	public int getKey(int id)
+	{
+		return this.keys[this.position[id]];
+	}
+
+	/**
+	 * Insert an ID into the heap, or lower its key if it is already in it
+	 * @param id of the item (must be smaller than the capacity)
+	 * @param object associated with the ID
+	 * @param key to order the item by
+	 * @return true if the heap changed, false if the ID already had a smaller or equal key
+	 */
+	public boolean update(int id, K object, int key)
+	{
+		if(this.contains(id)) {
+			if(key >= this.getKey(id)) return false;
+			this.keys[this.position[id]] = key;
+			this.siftUp(this.position[id]);
+		} else {
+			this.heap[this.size] = id;
+			this.keys[this.size] = key;
+			this.position[id] = this.size;
+			this.items[id] = object;
+			this.siftUp(this.size++);
+		}
+		return true;
+	}
+
+	/**
+	 * Get the ID with the smallest key without removing it
+	 * @return the ID at the top of the heap
+	 */
+	public int peekID()
+	{
+		return this.heap[0];
+	}
+
+	/**
+	 * Get the smallest key in the heap without removing it
+	 * @return the key at the top of the heap
+	 */
+	public int peekKey()
+	{
+		return this.keys[0];
+	}
+
+	/**
+	 * Remove the item with the smallest key from the heap
+	 * @return the object associated with the removed item
+	 */
+	@SuppressWarnings("unchecked")
+	public K poll()
+	{
+		int id = this.heap[0];
+		K object = (K)this.items[id];
+		this.removeTop();
+		return object;
+	}
+
+	/**
+	 * Remove the item with the smallest key from the heap
+	 * @return the ID of the removed item
+	 */
+	public int pollID()
+	{
+		int id = this.heap[0];
+		this.removeTop();
+		return id;
+	}
+
+	/**
+	 * Remove every item from the heap (only touches the items still in it)
+	 */
+	public void clear()
+	{
+		for(int i = 0; i < this.size; i++) {
+			this.position[this.heap[i]] = -1;
+			this.items[this.heap[i]] = null;
+		}
+		this.size = 0;
+	}
+
+	/**
+	 * Remove the top of the heap and restore the heap order
+	 */
+	private void removeTop()
+	{
+		int id = this.heap[0];
+		this.position[id] = -1;
+		this.items[id] = null;
+		if(--this.size > 0) {
+			this.heap[0] = this.heap[this.size];
+			this.keys[0] = this.keys[this.size];
+			this.position[this.heap[0]] = 0;
+			this.siftDown(0);
+		}
+	}
+
+	/**
+	 * Move an item up the heap until its parent has a smaller key
+	 * @param index of the item in the heap
+	 */
+	private void siftUp(int index)
+	{
+		int id = this.heap[index];
+		int key = this.keys[index];
+		while(index > 0) {
+			int parent = (index - 1) >>> 1;
+			if(this.keys[parent] <= key) break;
+			this.heap[index] = this.heap[parent];
+			this.keys[index] = this.keys[parent];
+			this.position[this.heap[index]] = index;
+			index = parent;
+		}
+		this.heap[index] = id;
+		this.keys[index] = key;
+		this.position[id] = index;
+	}
+
+	/**
+	 * Move an item down the heap until its children have larger keys
+	 * @param index of the item in the heap
+	 */
+	private void siftDown(int index)
+	{
+		int id = this.heap[index];
+		int key = this.keys[index];
+		int half = this.size >>> 1;
+		while(index < half) {
+			int child = 2 * index + 1;
+			if(child + 1 < this.size && this.keys[child + 1] < this.keys[child])
+				child++;
+			if(key <= this.keys[child]) break;
+			this.heap[index] = this.heap[child];
+			this.keys[index] = this.keys[child];
+			this.position[this.heap[index]] = index;
+			index = child;
+		}
+		this.heap[index] = id;
+		this.keys[index] = key;
+		this.position[id] = index;
+	}
+
+}
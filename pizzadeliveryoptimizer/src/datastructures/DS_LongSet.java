@@ -0,0 +1,150 @@
+package datastructures;
+
+public class DS_LongSet
+{
+
+	// Value marking a free slot (the value itself is tracked by a flag)
+	private static final long FREE = Long.MIN_VALUE;
+
+	// Values stored by open addressing (linear probing, the length is a power of two)
+	private long[] keys;
+
+	// Number of values in the slots
+	private int size;
+
+	// Whether the set holds the value used to mark free slots
+	private boolean containsFree;
+
+	/**
+	 * Basic constructor for the LongSet class
+	 */
+	public DS_LongSet()
+	{
+		this.keys = new long[16];
+		this.clear();
+	}
+
+	/**
+	 * Remove every value from the set
+	 */
+	public void clear()
+	{
+		for(int i = 0; i < this.keys.length; i++)
+			this.keys[i] = FREE;
+		this.size = 0;
+		this.containsFree = false;
+	}
+
+	/**
+	 * Get the number of values in the set
+	 * @return the number of values
+	 */
+	public int size()
+	{
+		return this.size + (this.containsFree ? 1 : 0);
+	}
+
+	/**
+	 * Determine if a value is in the set
+	 * @param key value to look for
+	 * @return true if it is, false otherwise
+	 */
+	public boolean contains(long key)
+	{
+		if(key == FREE) return this.containsFree;
+		return this.keys[this.find(key)] == key;
+	}
+
+	/**
+	 * Add a value to the set
+	 * @param key value to add
+	 * @return false if it was already in the set, true otherwise
+	 */
+	public boolean add(long key)
+	{
+		if(key == FREE) {
+			if(this.containsFree) return false;
+			this.containsFree = true;
+			return true;
+		}
+
+		int slot = this.find(key);
+		if(this.keys[slot] == key) return false;
+		this.keys[slot] = key;
+		// Keep at least half of the slots free so the probe sequences stay short
+		if(++this.size * 2 > this.keys.length)
+			this.rehash(this.keys.length * 2);
+		return true;
+	}
+
+	/**
+	 * Remove a value from the set
+	 * (the values after it in its probe sequence move back, so no deleted markers are left behind)
+	 * @param key value to remove
+	 * @return true if it was in the set, false otherwise
+	 */
+	public boolean remove(long key)
+	{
+		if(key == FREE) {
+			boolean result = this.containsFree;
+			this.containsFree = false;
+			return result;
+		}
+
+		int mask = this.keys.length - 1;
+		int free = this.find(key);
+		if(this.keys[free] != key) return false;
+
+		for(int i = (free + 1) & mask; this.keys[i] != FREE; i = (i + 1) & mask) {
+			// A value can fill the hole only if its home slot isn't between the hole and itself
+			int home = hash(this.keys[i]) & mask;
+			if(((i - home) & mask) >= ((i - free) & mask)) {
+				this.keys[free] = this.keys[i];
+				free = i;
+			}
+		}
+		this.keys[free] = FREE;
+		this.size--;
+		return true;
+	}
+
+	/**
+	 * Get the slot holding a value, or the free slot ending its probe sequence
+	 * @param key value to look for (not the free slot marker)
+	 * @return the slot
+	 */
+	private int find(long key)
+	{
+		int mask = this.keys.length - 1;
+		int slot = hash(key) & mask;
+		while(this.keys[slot] != FREE && this.keys[slot] != key)
+			slot = (slot + 1) & mask;
+		return slot;
+	}
+
+	/**
+	 * Move every value to a new slot array
+	 * @param length of the new array (a power of two)
+	 */
+	private void rehash(int length)
+	{
+		long[] old = this.keys;
+		this.keys = new long[length];
+		for(int i = 0; i < length; i++)
+			this.keys[i] = FREE;
+		for(long key : old)
+			if(key != FREE)
+				this.keys[this.find(key)] = key;
+	}
+
+	/**
+	 * Spread the bits of a value over the slot index (Fibonacci hashing, the high bits are the best mixed)
+	 * @param key value to hash
+	 * @return the hash
+	 */
+	private static int hash(long key)
+	{
+		return (int)((key * 0x9E3779B97F4A7C15L) >>> 32);
+	}
+
+}
@@ -17,8 +17,8 @@ public class DS_Path implements Serializable
     // ID associated with this path (memory only, in file it's the relative offset to record)
     private int id;
 
-    // Is this path a part of the shortest path?
-    private boolean isShortest;
+    // Travel profile of this path shared with other paths (null if the weight doesn't depend on the time)
+    private DS_Profile profile;
 
     // Starting house
     private final DS_House v_start;
@@ -34,11 +34,11 @@ public class DS_Path implements Serializable
 	 */
     public DS_Path(DS_House s, DS_House e, int weight)
     {
-    	this.isShortest = false;
         this.v_start = s;
         this.v_end = e;
         this.weight = weight;
         this.id = -1;
+        this.profile = null;
     }
 
     /**
@@ -78,47 +78,50 @@ public class DS_Path implements Serializable
     }
 
     /**
-     * Get the ID associated with this path
-     * @return the ID as an integer
+     * Get the time taken to cross the path when reaching its start at a given time
+     * (includes waiting for a quicker slot, see DS_Profile.getTravelTime)
+     * @param time at which the start of the path is reached (minutes since midnight)
+     * @return time taken to cross path
      */
-    public int getID()
+    public int getWeight(int time)
     {
-    	return this.id;
+    	return (this.profile == null) ? this.weight : this.profile.getTravelTime(this.weight, time);
     }
 
     /**
-     * Set the ID of this path (this can only be set once!)
-     * @param id to set the path to
+     * Get the travel profile of the path
+     * @return the profile (null if the weight doesn't depend on the time)
      */
-    public void setID(int id)
+    public DS_Profile getProfile()
     {
-    	if(this.id < 0) this.id = id;
+    	return this.profile;
     }
 
     /**
-     * Set whether or not this path is part of the shortest one
-     * @param isShortest status
+     * Set the travel profile of the path
+     * @param profile to use (null to make the weight independent of the time)
      */
-    public void setIsShortest(boolean isShortest)
+    public void setProfile(DS_Profile profile)
     {
-    	this.isShortest = isShortest;
+    	this.profile = profile;
     }
 
     /**
-     * Determine if this path is part of the shortest one
-     * @return whether or not it is
+     * Get the ID associated with this path
+     * @return the ID as an integer
      */
-    public boolean isShortest()
+    public int getID()
     {
-    	return this.isShortest;
+    	return this.id;
     }
 
     /**
-     * Clear the content of this Path
+     * Set the ID of this path (this can only be set once!)
+     * @param id to set the path to
      */
-    public void clear()
+    public void setID(int id)
     {
-    	this.setIsShortest(false);
+    	if(this.id < 0) this.id = id;
     }
 
     /**
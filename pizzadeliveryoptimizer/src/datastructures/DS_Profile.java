@@ -0,0 +1,109 @@
+package datastructures;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+public final class DS_Profile implements Serializable
+{
+
+	// Serialisation ID required by the JGraphX package
+	private static final long serialVersionUID = -3129058837712340917L;
+
+	// Length of a time slot (minutes)
+	public static final int SLOT_LENGTH = 15;
+
+	// Number of time slots in a day
+	public static final int SLOTS = 24 * 60 / SLOT_LENGTH;
+
+	// Length of a day (minutes), times of day wrap around after it
+	public static final int DAY = SLOTS * SLOT_LENGTH;
+
+	// Travel time factor at the start of every slot (percent of the path weight)
+	private final short[] factors;
+
+	// Lowest factor, and steepest fall of the factor from the start of a slot to the start of the next one
+	private final int lowest, drop;
+
+	/**
+	 * Travel profile constructor
+	 * @param factors travel time factor at the start of every slot, in percent of the path weight (SLOTS entries, copied)
+	 */
+	public DS_Profile(short[] factors)
+	{
+		this.factors = factors.clone();
+		int lowest = Integer.MAX_VALUE, drop = 0;
+		for(int slot = 0; slot < SLOTS; slot++) {
+			lowest = Math.min(lowest, this.factors[slot]);
+			drop = Math.max(drop, this.factors[slot] - this.factors[(slot + 1) % SLOTS]);
+		}
+		this.lowest = lowest;
+		this.drop = drop;
+	}
+
+	/**
+	 * Get the travel time factor at the start of a slot
+	 * @param slot index (0 starts at midnight)
+	 * @return the factor in percent of the path weight
+	 */
+	public int getFactor(int slot)
+	{
+		return this.factors[slot];
+	}
+
+	/**
+	 * Get the time taken to reach the end of a path when arriving at its start at a given time
+	 * (waiting for a later slot is included when the path gets quicker faster than the time passes,
+	 * so arriving at the start later never means reaching the end sooner)
+	 * @param weight of the path
+	 * @param time at which the start of the path is reached (minutes since midnight, wraps around every day)
+	 * @return the travel time, waiting included
+	 */
+	public int getTravelTime(int weight, int time)
+	{
+		int travel = this.getCrossingTime(weight, time);
+		// The travel time can only fall by a minute per minute waited, so waiting would never help
+		if((long)weight * this.drop <= 100L * SLOT_LENGTH) return travel;
+
+		// Within a slot the arrival time moves steadily one way, so the best moments to leave are slot starts
+		int least = (int)((long)weight * this.lowest / 100);
+		int minute = ((time % DAY) + DAY) % DAY;
+		for(int wait = SLOT_LENGTH - minute % SLOT_LENGTH; wait + least < travel; wait += SLOT_LENGTH)
+			travel = Math.min(travel, wait + this.getCrossingTime(weight, time + wait));
+		return travel;
+	}
+
+	/**
+	 * Get the time taken to cross a path when entering it at a given time (without waiting)
+	 * (the factor changes linearly from the start of a slot to the start of the next one)
+	 * @param weight of the path
+	 * @param time at which the path is entered (minutes since midnight, wraps around every day)
+	 * @return the crossing time
+	 */
+	private int getCrossingTime(int weight, int time)
+	{
+		int minute = ((time % DAY) + DAY) % DAY;
+		int slot = minute / SLOT_LENGTH, offset = minute % SLOT_LENGTH;
+		long factor = (long)this.factors[slot] * (SLOT_LENGTH - offset) + (long)this.factors[(slot + 1) % SLOTS] * offset;
+		return (int)((weight * factor + 50 * SLOT_LENGTH) / (100 * SLOT_LENGTH));
+	}
+
+	/**
+	 * Profiles with the same factors are equal (lets every path share one copy)
+	 * @param other object to compare with
+	 * @return true if the factors are the same, false otherwise
+	 */
+	public boolean equals(Object other)
+	{
+		return (other instanceof DS_Profile) && Arrays.equals(this.factors, ((DS_Profile)other).factors);
+	}
+
+	/**
+	 * Hash code matching equals()
+	 * @return the hash code of the factors
+	 */
+	public int hashCode()
+	{
+		return Arrays.hashCode(this.factors);
+	}
+
+}
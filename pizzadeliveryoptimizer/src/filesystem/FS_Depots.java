@@ -0,0 +1,100 @@
+package filesystem;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+
+import errors.EX_Exception;
+import errors.EX_Exception.ErrorType;
+
+public class FS_Depots
+{
+
+	// Depot file (stored next to the map files)
+	private File file;
+
+	/**
+	 * Depot file handler constructor
+	 * @param file to use
+	 */
+	public FS_Depots(File file)
+	{
+		this.file = file;
+	}
+
+	/**
+	 * Read the house IDs of the depots from the file
+	 * @return the IDs (null if there is no depot file yet)
+	 * @throws PRP_Exception
+	 */
+	public int[] read() throws EX_Exception
+	{
+		if(this.file.exists() == false)
+			return null;
+
+		DataInputStream dis = null;
+		try {
+			byte[] data = new byte[(int)this.file.length()];
+			dis = new DataInputStream(new FileInputStream(this.file));
+			dis.readFully(data);
+			ByteBuffer buffer = ByteBuffer.wrap(data);
+			int count = buffer.getInt();
+			if(count < 0 || data.length != 4 + 4L * count)
+				throw new EX_Exception("Corrupted depot data in " + this.file.getAbsolutePath(), ErrorType.ERROR_FILESYSTEM);
+			int[] depots = new int[count];
+			buffer.asIntBuffer().get(depots);
+			return depots;
+		} catch(EX_Exception e) {
+			throw e;
+		} catch(FileNotFoundException e) {
+			throw new EX_Exception("Missing file: " + this.file.getAbsolutePath(), ErrorType.ERROR_FILESYSTEM, e);
+		} catch(IOException e) {
+			throw new EX_Exception("I/O error whilst reading " + this.file.getAbsolutePath(), ErrorType.ERROR_FILESYSTEM, e);
+		} catch(Exception e) {
+			throw new EX_Exception("Unknown error whilst reading " + this.file.getAbsolutePath(), ErrorType.ERROR_FILESYSTEM, e);
+		} finally {
+			try {
+				if(dis != null) dis.close();
+			} catch (IOException e) {
+				throw new EX_Exception("Couldn't close " + this.file.getAbsolutePath(), ErrorType.ERROR_FILESYSTEM, e);
+			}
+		}
+	}
+
+	/**
+	 * Write the house IDs of the depots to the file (replaces its previous content)
+	 * @param depots house IDs
+	 * @param count number of entries in use
+	 * @throws PRP_Exception
+	 */
+	public void write(int[] depots, int count) throws EX_Exception
+	{
+		ByteBuffer buffer = ByteBuffer.allocate(4 + 4 * count);
+		buffer.putInt(count);
+		buffer.asIntBuffer().put(depots, 0, count);
+
+		RandomAccessFile rafile = null;
+		try {
+			rafile = new RandomAccessFile(this.file, "rw");
+			rafile.setLength(0);
+			rafile.write(buffer.array());
+		} catch(FileNotFoundException e) {
+			throw new EX_Exception("Missing file: " + this.file.getAbsolutePath(), ErrorType.ERROR_FILESYSTEM, e);
+		} catch(IOException e) {
+			throw new EX_Exception("I/O exception whilst writing to " + this.file.getAbsolutePath(), ErrorType.ERROR_FILESYSTEM, e);
+		} catch(Exception e) {
+			throw new EX_Exception("Unknown error whilst writing to " + this.file.getAbsolutePath(), ErrorType.ERROR_FILESYSTEM, e);
+		} finally {
+			try {
+				if(rafile != null) rafile.close();
+			} catch (IOException e) {
+				throw new EX_Exception("Couldn't close " + this.file.getAbsolutePath(), ErrorType.ERROR_FILESYSTEM, e);
+			}
+		}
+	}
+
+}
@@ -6,7 +6,7 @@ import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.RandomAccessFile;
-import java.util.Iterator;
+import java.util.Arrays;
 
 import datastructures.DS_GenericList;
 import datastructures.DS_House;
@@ -20,6 +20,9 @@ public class FS_House extends FS_File<DS_House>
 	// Paths file system object
 	private FS_Path fspath;
 
+	// Houses of the content list indexed by ID (null for free record slots)
+	private DS_House[] slots;
+
 	/**
 	 * House file system handler constructor
 	 * @param file to use
@@ -30,6 +33,7 @@ public class FS_House extends FS_File<DS_House>
 	{
 		try {
 			this.content = new DS_GenericList<DS_House>();
+			this.slots = new DS_House[16];
 			this.file = file;
 			if(create == false) this.read();
 		} catch(EX_Exception e) {
@@ -53,10 +57,14 @@ public class FS_House extends FS_File<DS_House>
 				byte[] namedata = new byte[24];
 				dis.readFully(namedata);
 				String name = new String(namedata).trim();
+				// Deleted records keep their coordinates, they must be read to stay aligned with the next record
+				int x = dis.readInt();
+				int y = dis.readInt();
 				if(deleted == false) {
-					DS_House house = new DS_House(name, dis.readInt(), dis.readInt());
+					DS_House house = new DS_House(name, x, y);
 					house.setID(i);
 					this.content.add(house);
+					this.setSlot(i, house);
 				}
 			}
 		} catch(FileNotFoundException e) {
@@ -85,32 +93,51 @@ public class FS_House extends FS_File<DS_House>
 		if(this.contains(object)) return false;
 		object.setID(this.setRecordDetails(this.getAvailableID(), object));
 		this.content.add(object);
+		this.setSlot(object.getID(), object);
 		return true;
 	}
 
 	/**
-	 * Remove a house from the list based on an ID
+	 * Remove a house from the list based on an ID (along with the paths leading to it or leaving it)
 	 * @param object of type House to remove from the content list and file
 	 * @return true if the object is found, false otherwise
 	 * @throws PRP_Exception
 	 */
 	public boolean remove(DS_House object) throws EX_Exception
 	{
-		Iterator<DS_House> itr = this.content.iterator();
+		DS_GenericList<DS_House> houses = new DS_GenericList<DS_House>();
+		houses.add(object);
+		return this.remove(houses) == 1;
+	}
 
-		while(itr.hasNext()) {
-			DS_House house = itr.next();
-			if(house.getID() == object.getID()) {
-				for(DS_Path path : this.fspath.getContentList())
-					if(path.getStart().getID() == object.getID() || path.getEnd().getID() == object.getID())
-						this.fspath.remove(path);
-				this.setDeleted(object.getID());
-				itr.remove();
-				return true;
-			}
+	/**
+	 * Remove several houses in a single pass over the content lists (along with their paths)
+	 * (only the paths in the houses' own lists are visited, not every path of the map)
+	 * @param objects of type House to remove from the content list and file (unknown ones are skipped)
+	 * @return the number of houses removed
+	 * @throws PRP_Exception
+	 */
+	public int remove(DS_GenericList<DS_House> objects) throws EX_Exception
+	{
+		DS_GenericList<DS_House> houses = new DS_GenericList<DS_House>();
+		DS_GenericList<DS_Path> paths = new DS_GenericList<DS_Path>();
+		for(DS_House object : objects) {
+			DS_House house = this.getHouseFromID(object.getID());
+			if(house == null) continue;
+			// Clearing the slot straight away also skips the house if it is listed twice
+			this.slots[house.getID()] = null;
+			houses.add(house);
+			for(DS_Path path : house.getPaths())
+				paths.add(path);
+			for(DS_Path path : house.getIncomingPaths())
+				paths.add(path);
 		}
 
-		return false;
+		this.fspath.remove(paths);
+		for(DS_House house : houses)
+			this.setDeleted(house.getID());
+		this.content.removeAll(houses);
+		return houses.size();
 	}
 
 	/**
@@ -255,13 +282,19 @@ public class FS_House extends FS_File<DS_House>
 	 */
 	public DS_House getHouseFromID(int id)
 	{
-		Iterator<DS_House> itr = this.content.iterator();
-		while(itr.hasNext()) {
-			DS_House house = itr.next();
-			if(house.getID() == id)
-				return house;
-		}
-		return null;
+		return (id >= 0 && id < this.slots.length) ? this.slots[id] : null;
+	}
+
+	/**
+	 * Index a house of the content list by its ID (the index grows with the file)
+	 * @param id of the house
+	 * @param house to index
+	 */
+	private void setSlot(int id, DS_House house)
+	{
+		if(id >= this.slots.length)
+			this.slots = Arrays.copyOf(this.slots, Math.max(id + 1, this.slots.length * 2));
+		this.slots[id] = house;
 	}
 
 	/**
@@ -280,10 +313,7 @@ public class FS_House extends FS_File<DS_House>
 	 */
 	protected boolean contains(DS_House object)
 	{
-		for(DS_House house : this.getContentList())
-			if(house.getID() == object.getID())
-				return true;
-		return false;
+		return this.getHouseFromID(object.getID()) != null;
 	}
 
 }
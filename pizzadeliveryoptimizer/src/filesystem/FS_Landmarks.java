@@ -0,0 +1,238 @@
+package filesystem;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+
+import errors.EX_Exception;
+import errors.EX_Exception.ErrorType;
+
+public class FS_Landmarks
+{
+
+	// Size of the file header (landmark count, house count, map signature)
+	private static final int HEADER_SIZE = 4 + 4 + 8;
+
+	// Landmark table file (stored next to the map files)
+	private File file;
+
+	// Signature of the map the tables were computed for
+	private long signature;
+
+	// House IDs of the landmarks
+	private int[] landmarks;
+
+	// Distances from every landmark to every house, and from every house to every landmark (-1 if unreachable)
+	private int[][] forward, backward;
+
+	/**
+	 * Landmark table file handler constructor
+	 * @param file to use
+	 */
+	public FS_Landmarks(File file)
+	{
+		this.file = file;
+		this.signature = 0;
+		this.landmarks = null;
+		this.forward = null;
+		this.backward = null;
+	}
+
+	/**
+	 * Read the landmark tables from the file
+	 * @return true if the tables were read, false if there is no table file yet
+	 * @throws PRP_Exception
+	 */
+	public boolean read() throws EX_Exception
+	{
+		if(this.file.exists() == false)
+			return false;
+
+		DataInputStream dis = null;
+		try {
+			byte[] data = new byte[(int)this.file.length()];
+			dis = new DataInputStream(new FileInputStream(this.file));
+			dis.readFully(data);
+			ByteBuffer buffer = ByteBuffer.wrap(data);
+			int k = buffer.getInt();
+			int n = buffer.getInt();
+			if(k < 0 || n < 0 || data.length != this.getFileSize(k, n))
+				throw new EX_Exception("Corrupted landmark data in " + this.file.getAbsolutePath(), ErrorType.ERROR_FILESYSTEM);
+			this.signature = buffer.getLong();
+			this.landmarks = new int[k];
+			buffer.asIntBuffer().get(this.landmarks);
+			buffer.position(buffer.position() + 4 * k);
+			this.forward = new int[k][n];
+			this.backward = new int[k][n];
+			for(int i = 0; i < k; i++) {
+				buffer.asIntBuffer().get(this.forward[i]);
+				buffer.position(buffer.position() + 4 * n);
+				buffer.asIntBuffer().get(this.backward[i]);
+				buffer.position(buffer.position() + 4 * n);
+			}
+			return true;
+		} catch(EX_Exception e) {
+			throw e;
+		} catch(FileNotFoundException e) {
+			throw new EX_Exception("Missing file: " + this.file.getAbsolutePath(), ErrorType.ERROR_FILESYSTEM, e);
+		} catch(IOException e) {
+			throw new EX_Exception("I/O error whilst reading " + this.file.getAbsolutePath(), ErrorType.ERROR_FILESYSTEM, e);
+		} catch(Exception e) {
+			throw new EX_Exception("Unknown error whilst reading " + this.file.getAbsolutePath(), ErrorType.ERROR_FILESYSTEM, e);
+		} finally {
+			try {
+				if(dis != null) dis.close();
+			} catch (IOException e) {
+				throw new EX_Exception("Couldn't close " + this.file.getAbsolutePath(), ErrorType.ERROR_FILESYSTEM, e);
+			}
+		}
+	}
+
+	/**
+	 * Write every landmark table to the file (replaces its previous content)
+	 * @param signature of the map the tables were computed for
+	 * @param landmarks house IDs
+	 * @param forward distances from every landmark
+	 * @param backward distances to every landmark
+	 * @throws PRP_Exception
+	 */
+	public void write(long signature, int[] landmarks, int[][] forward, int[][] backward) throws EX_Exception
+	{
+		int k = landmarks.length;
+		int n = (k == 0) ? 0 : forward[0].length;
+		ByteBuffer buffer = ByteBuffer.allocate((int)this.getFileSize(k, n));
+		buffer.putInt(k);
+		buffer.putInt(n);
+		buffer.putLong(signature);
+		buffer.asIntBuffer().put(landmarks);
+		buffer.position(buffer.position() + 4 * k);
+		for(int i = 0; i < k; i++) {
+			buffer.asIntBuffer().put(forward[i]);
+			buffer.position(buffer.position() + 4 * n);
+			buffer.asIntBuffer().put(backward[i]);
+			buffer.position(buffer.position() + 4 * n);
+		}
+
+		RandomAccessFile rafile = null;
+		try {
+			rafile = new RandomAccessFile(this.file, "rw");
+			rafile.setLength(0);
+			rafile.write(buffer.array());
+		} catch(FileNotFoundException e) {
+			throw new EX_Exception("Missing file: " + this.file.getAbsolutePath(), ErrorType.ERROR_FILESYSTEM, e);
+		} catch(IOException e) {
+			throw new EX_Exception("I/O exception whilst writing to " + this.file.getAbsolutePath(), ErrorType.ERROR_FILESYSTEM, e);
+		} catch(Exception e) {
+			throw new EX_Exception("Unknown error whilst writing to " + this.file.getAbsolutePath(), ErrorType.ERROR_FILESYSTEM, e);
+		} finally {
+			try {
+				if(rafile != null) rafile.close();
+			} catch (IOException e) {
+				throw new EX_Exception("Couldn't close " + this.file.getAbsolutePath(), ErrorType.ERROR_FILESYSTEM, e);
+			}
+		}
+
+		this.signature = signature;
+		this.landmarks = landmarks;
+		this.forward = forward;
+		this.backward = backward;
+	}
+
+	/**
+	 * Overwrite the tables of some landmarks in the file with the content of the arrays last read or written
+	 * (the landmark and house counts must not have changed since)
+	 * @param signature of the map the tables now match
+	 * @param changed flags for every landmark whose tables must be written
+	 * @throws PRP_Exception
+	 */
+	public void update(long signature, boolean[] changed) throws EX_Exception
+	{
+		int k = this.landmarks.length;
+		int n = (k == 0) ? 0 : this.forward[0].length;
+		ByteBuffer buffer = ByteBuffer.allocate(8 * n);
+
+		RandomAccessFile rafile = null;
+		try {
+			rafile = new RandomAccessFile(this.file, "rw");
+			rafile.seek(8);
+			rafile.writeLong(signature);
+			for(int i = 0; i < k; i++) {
+				if(changed[i] == false) continue;
+				rafile.seek(HEADER_SIZE + 4 * i);
+				rafile.writeInt(this.landmarks[i]);
+				buffer.clear();
+				buffer.asIntBuffer().put(this.forward[i]);
+				buffer.position(4 * n);
+				buffer.asIntBuffer().put(this.backward[i]);
+				rafile.seek(HEADER_SIZE + 4L * k + 8L * n * i);
+				rafile.write(buffer.array());
+			}
+		} catch(FileNotFoundException e) {
+			throw new EX_Exception("Missing file: " + this.file.getAbsolutePath(), ErrorType.ERROR_FILESYSTEM, e);
+		} catch(IOException e) {
+			throw new EX_Exception("I/O exception whilst writing to " + this.file.getAbsolutePath(), ErrorType.ERROR_FILESYSTEM, e);
+		} catch(Exception e) {
+			throw new EX_Exception("Unknown error whilst writing to " + this.file.getAbsolutePath(), ErrorType.ERROR_FILESYSTEM, e);
+		} finally {
+			try {
+				if(rafile != null) rafile.close();
+			} catch (IOException e) {
+				throw new EX_Exception("Couldn't close " + this.file.getAbsolutePath(), ErrorType.ERROR_FILESYSTEM, e);
+			}
+		}
+
+		this.signature = signature;
+	}
+
+	/**
+	 * Get the size of a landmark file
+	 * @param k number of landmarks
+	 * @param n number of house IDs
+	 * @return the size in bytes
+	 */
+	private long getFileSize(int k, int n)
+	{
+		return HEADER_SIZE + 4L * k + 8L * k * n;
+	}
+
+	/**
+	 * Get the signature of the map the tables were computed for
+	 * @return the map signature
+	 */
+	public long getSignature()
+	{
+		return this.signature;
+	}
+
+	/**
+	 * Get the house IDs of the landmarks (edit in place before calling update)
+	 * @return array of house IDs (null if nothing was read or written)
+	 */
+	public int[] getLandmarks()
+	{
+		return this.landmarks;
+	}
+
+	/**
+	 * Get the distances from every landmark to every house (edit in place before calling update)
+	 * @return one array per landmark indexed by house ID
+	 */
+	public int[][] getForward()
+	{
+		return this.forward;
+	}
+
+	/**
+	 * Get the distances from every house to every landmark (edit in place before calling update)
+	 * @return one array per landmark indexed by house ID
+	 */
+	public int[][] getBackward()
+	{
+		return this.backward;
+	}
+
+}
@@ -0,0 +1,67 @@
+package filesystem;
+
+import datastructures.DS_House;
+import datastructures.DS_Path;
+import errors.EX_Exception;
+
+public interface FS_Listener
+{
+
+	/**
+	 * Called once a house has been added to the map
+	 * @param house that was added
+	 * @throws PRP_Exception
+	 */
+	public void houseAdded(DS_House house) throws EX_Exception;
+
+	/**
+	 * Called once a house has been removed from the map (after its paths were removed)
+	 * @param house that was removed
+	 * @throws PRP_Exception
+	 */
+	public void houseRemoved(DS_House house) throws EX_Exception;
+
+	/**
+	 * Called once a house's details (name or position) have been overwritten
+	 * @param house that was changed
+	 * @throws PRP_Exception
+	 */
+	public void houseChanged(DS_House house) throws EX_Exception;
+
+	/**
+	 * Called once a path has been added to the map
+	 * @param path that was added
+	 * @throws PRP_Exception
+	 */
+	public void pathAdded(DS_Path path) throws EX_Exception;
+
+	/**
+	 * Called once a path has been removed from the map
+	 * @param path that was removed
+	 * @throws PRP_Exception
+	 */
+	public void pathRemoved(DS_Path path) throws EX_Exception;
+
+	/**
+	 * Called once a path's weight has been changed
+	 * @param path that was changed (already holding the new weight)
+	 * @param oldWeight of the path before the change
+	 * @throws PRP_Exception
+	 */
+	public void pathWeightChanged(DS_Path path, int oldWeight) throws EX_Exception;
+
+	/**
+	 * Called once a house has been made a depot (the pizzeria is the first one)
+	 * @param house that became a depot
+	 * @throws PRP_Exception
+	 */
+	public void depotAdded(DS_House house) throws EX_Exception;
+
+	/**
+	 * Called once a house has stopped being a depot (before the house itself is removed, if it is)
+	 * @param house that was a depot
+	 * @throws PRP_Exception
+	 */
+	public void depotRemoved(DS_House house) throws EX_Exception;
+
+}
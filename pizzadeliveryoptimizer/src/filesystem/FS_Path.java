@@ -6,10 +6,11 @@ import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.RandomAccessFile;
-import java.util.Iterator;
+import java.util.Arrays;
 
 import datastructures.DS_GenericList;
 import datastructures.DS_House;
+import datastructures.DS_LongSet;
 import datastructures.DS_Path;
 import errors.EX_Exception;
 import errors.EX_Exception.ErrorType;
@@ -20,6 +21,12 @@ public class FS_Path extends FS_File<DS_Path>
 	// House file system associated with this path file system
 	private FS_House fshouse = null;
 
+	// Paths of the content list indexed by ID (null for free record slots)
+	private DS_Path[] slots;
+
+	// Start and end house IDs of every path in the content list (packed by getEnds)
+	private DS_LongSet ends;
+
 	/**
 	 * Path file system constructor
 	 * @param file to use
@@ -30,6 +37,8 @@ public class FS_Path extends FS_File<DS_Path>
 	public FS_Path(File file, FS_House fshouse, boolean create) throws EX_Exception
 	{
 		this.content = new DS_GenericList<DS_Path>();
+		this.slots = new DS_Path[16];
+		this.ends = new DS_LongSet();
 		this.fshouse = fshouse;
 		this.file = file;
 		if(create == false) this.read();
@@ -58,8 +67,11 @@ public class FS_Path extends FS_File<DS_Path>
 					if(end == null) throw new EX_Exception("Inconsisted path data (id:" + i + ") - ending house unavailable", ErrorType.ERROR_FILESYSTEM);
 					DS_Path path = new DS_Path(start, end, weight);
 					start.addPath(path);
+					end.addIncomingPath(path);
 					path.setID(i);
 					this.content.add(path);
+					this.setSlot(i, path);
+					this.ends.add(getEnds(path));
 				}
 			}
 		} catch(FileNotFoundException e) {
@@ -88,7 +100,10 @@ public class FS_Path extends FS_File<DS_Path>
 			return false;
 		object.setID(this.setRecordDetails(this.getAvailableID(), object));
 		this.getContentList().add(object);
+		this.setSlot(object.getID(), object);
+		this.ends.add(getEnds(object));
 		object.getStart().addPath(object);
+		object.getEnd().addIncomingPath(object);
 		return true;
 	}
 
@@ -99,11 +114,17 @@ public class FS_Path extends FS_File<DS_Path>
 	 */
 	protected boolean contains(DS_Path object)
 	{
-		for(DS_Path path : this.getContentList())
-			if(path.getStart().getID() == object.getStart().getID() &&
-					path.getEnd().getID() == object.getEnd().getID())
-				return true;
-		return false;
+		return this.ends.contains(getEnds(object));
+	}
+
+	/**
+	 * Pack the start and end house IDs of a path into a single value (start in the high half)
+	 * @param path to pack
+	 * @return the packed IDs
+	 */
+	private static long getEnds(DS_Path path)
+	{
+		return ((long)path.getStart().getID() << 32) | (path.getEnd().getID() & 0xFFFFFFFFL);
 	}
 
 	/**
@@ -125,18 +146,46 @@ public class FS_Path extends FS_File<DS_Path>
 	 */
 	private boolean remove(int id) throws EX_Exception
 	{
-		Iterator<DS_Path> itr = this.content.iterator();
+		DS_Path path = this.getPathFromID(id);
+		if(path == null)
+			return false;
 
-		while(itr.hasNext()) {
-			DS_Path path = itr.next();
-			if(path.getID() == id) {
-				this.setDeleted(id);
-				itr.remove();
-				return true;
-			}
+		this.delete(path);
+		this.content.remove(path);
+		return true;
+	}
+
+	/**
+	 * Remove several paths in a single pass over the content list
+	 * @param objects of type Path to remove from the content list and file (unknown ones are skipped)
+	 * @return the number of paths removed
+	 * @throws PRP_Exception
+	 */
+	public int remove(DS_GenericList<DS_Path> objects) throws EX_Exception
+	{
+		DS_GenericList<DS_Path> paths = new DS_GenericList<DS_Path>();
+		for(DS_Path object : objects) {
+			DS_Path path = this.getPathFromID(object.getID());
+			if(path == null) continue;
+			this.delete(path);
+			paths.add(path);
 		}
+		this.content.removeAll(paths);
+		return paths.size();
+	}
 
-		return false;
+	/**
+	 * Delete a path's record and unlink it from its houses and the indexes (the content list is left to the caller)
+	 * @param path to delete
+	 * @throws PRP_Exception
+	 */
+	private void delete(DS_Path path) throws EX_Exception
+	{
+		this.setDeleted(path.getID());
+		path.getStart().removePath(path);
+		path.getEnd().removeIncomingPath(path);
+		this.slots[path.getID()] = null;
+		this.ends.remove(getEnds(path));
 	}
 
 	/**
@@ -254,6 +303,36 @@ public class FS_Path extends FS_File<DS_Path>
 		return true;
 	}
 
+	/**
+	 * Get the weight currently stored in a path record
+	 * @param id of the record to read
+	 * @return the stored weight (-1 if the ID is invalid)
+	 * @throws PRP_Exception
+	 */
+	protected int getRecordWeight(int id) throws EX_Exception
+	{
+		if(this.isValidID(id) == false)
+			return -1;
+		RandomAccessFile rafile = null;
+		try {
+			rafile = new RandomAccessFile(this.file, "r");
+			rafile.seek(DS_Path.RECORD_SIZE * id + 1 + 4 + 4);
+			return rafile.readInt();
+		} catch(FileNotFoundException e) {
+			throw new EX_Exception("Missing file: " + this.file.getAbsolutePath(), ErrorType.ERROR_FILESYSTEM, e);
+		} catch(IOException e) {
+			throw new EX_Exception("I/O error whilst reading " + this.file.getAbsolutePath(), ErrorType.ERROR_FILESYSTEM, e);
+		} catch(Exception e) {
+			throw new EX_Exception("Unknown error whilst reading " + this.file.getAbsolutePath(), ErrorType.ERROR_FILESYSTEM, e);
+		} finally {
+			try {
+				if(rafile != null) rafile.close();
+			} catch (IOException e) {
+				throw new EX_Exception("Couldn't close " + this.file.getAbsolutePath(), ErrorType.ERROR_FILESYSTEM, e);
+			}
+		}
+	}
+
 	/**
 	 * Determine if the requested ID is valid (exists in the file)
 	 * @param id to test
@@ -271,13 +350,19 @@ public class FS_Path extends FS_File<DS_Path>
 	 */
 	public DS_Path getPathFromID(int id)
 	{
-		Iterator<DS_Path> itr = this.content.iterator();
-		while(itr.hasNext()) {
-			DS_Path path = itr.next();
-			if(path.getID() == id)
-				return path;
-		}
-		return null;
+		return (id >= 0 && id < this.slots.length) ? this.slots[id] : null;
+	}
+
+	/**
+	 * Index a path of the content list by its ID (the index grows with the file)
+	 * @param id of the path
+	 * @param path to index
+	 */
+	private void setSlot(int id, DS_Path path)
+	{
+		if(id >= this.slots.length)
+			this.slots = Arrays.copyOf(this.slots, Math.max(id + 1, this.slots.length * 2));
+		this.slots[id] = path;
 	}
 
 	/**
@@ -0,0 +1,193 @@
+package filesystem;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+
+import datastructures.DS_GenericList;
+import datastructures.DS_Path;
+import datastructures.DS_Profile;
+import errors.EX_Exception;
+import errors.EX_Exception.ErrorType;
+
+public class FS_Profiles
+{
+
+	// Size of the file header (slot count, profile count, assigned path count)
+	private static final int HEADER_SIZE = 4 + 4 + 4;
+
+	// Profile file (stored next to the map files)
+	private File file;
+
+	// Shared copy of every distinct profile (paths with the same factors all point to it)
+	private HashMap<DS_Profile, DS_Profile> store;
+
+	/**
+	 * Travel profile file handler constructor
+	 * @param file to use
+	 */
+	public FS_Profiles(File file)
+	{
+		this.file = file;
+		this.store = new HashMap<DS_Profile, DS_Profile>();
+	}
+
+	/**
+	 * Get the shared copy of a profile (the profile itself becomes the shared copy if there is none yet)
+	 * @param profile to look for
+	 * @return the shared profile with the same factors
+	 */
+	public DS_Profile intern(DS_Profile profile)
+	{
+		DS_Profile shared = this.store.get(profile);
+		if(shared != null)
+			return shared;
+		this.store.put(profile, profile);
+		return profile;
+	}
+
+	/**
+	 * Get the number of distinct profiles in the store
+	 * @return the number of profiles
+	 */
+	public int size()
+	{
+		return this.store.size();
+	}
+
+	/**
+	 * Read the profiles from the file and attach them to their paths
+	 * @param paths of the map (paths missing from the file keep a weight independent of the time)
+	 * @return true if the profiles were read, false if there is no profile file yet
+	 * @throws PRP_Exception
+	 */
+	public boolean read(DS_GenericList<DS_Path> paths) throws EX_Exception
+	{
+		if(this.file.exists() == false)
+			return false;
+
+		DataInputStream dis = null;
+		try {
+			byte[] data = new byte[(int)this.file.length()];
+			dis = new DataInputStream(new FileInputStream(this.file));
+			dis.readFully(data);
+			ByteBuffer buffer = ByteBuffer.wrap(data);
+			int slots = buffer.getInt();
+			int count = buffer.getInt();
+			int assigned = buffer.getInt();
+			if(slots != DS_Profile.SLOTS || count < 0 || assigned < 0 || data.length != this.getFileSize(count, assigned))
+				throw new EX_Exception("Corrupted profile data in " + this.file.getAbsolutePath(), ErrorType.ERROR_FILESYSTEM);
+
+			DS_Profile[] profiles = new DS_Profile[count];
+			short[] factors = new short[slots];
+			for(int i = 0; i < count; i++) {
+				buffer.asShortBuffer().get(factors);
+				buffer.position(buffer.position() + 2 * slots);
+				profiles[i] = this.intern(new DS_Profile(factors));
+			}
+
+			int maxID = -1;
+			for(DS_Path path : paths)
+				maxID = Math.max(maxID, path.getID());
+			DS_Path[] byID = new DS_Path[maxID + 1];
+			for(DS_Path path : paths)
+				byID[path.getID()] = path;
+			for(int i = 0; i < assigned; i++) {
+				int id = buffer.getInt();
+				int profile = buffer.getInt();
+				if(id < 0 || id >= byID.length || byID[id] == null || profile < 0 || profile >= count)
+					throw new EX_Exception("Inconsistent profile data (path id:" + id + ")", ErrorType.ERROR_FILESYSTEM);
+				byID[id].setProfile(profiles[profile]);
+			}
+			return true;
+		} catch(EX_Exception e) {
+			throw e;
+		} catch(FileNotFoundException e) {
+			throw new EX_Exception("Missing file: " + this.file.getAbsolutePath(), ErrorType.ERROR_FILESYSTEM, e);
+		} catch(IOException e) {
+			throw new EX_Exception("I/O error whilst reading " + this.file.getAbsolutePath(), ErrorType.ERROR_FILESYSTEM, e);
+		} catch(Exception e) {
+			throw new EX_Exception("Unknown error whilst reading " + this.file.getAbsolutePath(), ErrorType.ERROR_FILESYSTEM, e);
+		} finally {
+			try {
+				if(dis != null) dis.close();
+			} catch (IOException e) {
+				throw new EX_Exception("Couldn't close " + this.file.getAbsolutePath(), ErrorType.ERROR_FILESYSTEM, e);
+			}
+		}
+	}
+
+	/**
+	 * Write the profiles of the paths to the file (replaces its previous content, unused profiles are dropped)
+	 * @param paths of the map
+	 * @throws PRP_Exception
+	 */
+	public void write(DS_GenericList<DS_Path> paths) throws EX_Exception
+	{
+		// Number the profiles still in use, each one is written once whatever the number of paths sharing it
+		HashMap<DS_Profile, Integer> index = new HashMap<DS_Profile, Integer>();
+		DS_GenericList<DS_Profile> used = new DS_GenericList<DS_Profile>();
+		int assigned = 0;
+		for(DS_Path path : paths) {
+			if(path.getProfile() == null) continue;
+			assigned++;
+			if(index.containsKey(path.getProfile()) == false) {
+				index.put(path.getProfile(), index.size());
+				used.add(path.getProfile());
+			}
+		}
+
+		ByteBuffer buffer = ByteBuffer.allocate((int)this.getFileSize(index.size(), assigned));
+		buffer.putInt(DS_Profile.SLOTS);
+		buffer.putInt(index.size());
+		buffer.putInt(assigned);
+		for(DS_Profile profile : used)
+			for(int s = 0; s < DS_Profile.SLOTS; s++)
+				buffer.putShort((short)profile.getFactor(s));
+		for(DS_Path path : paths) {
+			if(path.getProfile() == null) continue;
+			buffer.putInt(path.getID());
+			buffer.putInt(index.get(path.getProfile()));
+		}
+
+		RandomAccessFile rafile = null;
+		try {
+			rafile = new RandomAccessFile(this.file, "rw");
+			rafile.setLength(0);
+			rafile.write(buffer.array());
+		} catch(FileNotFoundException e) {
+			throw new EX_Exception("Missing file: " + this.file.getAbsolutePath(), ErrorType.ERROR_FILESYSTEM, e);
+		} catch(IOException e) {
+			throw new EX_Exception("I/O exception whilst writing to " + this.file.getAbsolutePath(), ErrorType.ERROR_FILESYSTEM, e);
+		} catch(Exception e) {
+			throw new EX_Exception("Unknown error whilst writing to " + this.file.getAbsolutePath(), ErrorType.ERROR_FILESYSTEM, e);
+		} finally {
+			try {
+				if(rafile != null) rafile.close();
+			} catch (IOException e) {
+				throw new EX_Exception("Couldn't close " + this.file.getAbsolutePath(), ErrorType.ERROR_FILESYSTEM, e);
+			}
+		}
+
+		this.store.clear();
+		for(DS_Profile profile : used)
+			this.store.put(profile, profile);
+	}
+
+	/**
+	 * Compute the size of the profile file
+	 * @param count number of distinct profiles
+	 * @param assigned number of paths with a profile
+	 * @return the size in bytes
+	 */
+	private long getFileSize(int count, int assigned)
+	{
+		return HEADER_SIZE + 2L * DS_Profile.SLOTS * count + 8L * assigned;
+	}
+
+}
@@ -1,7 +1,7 @@
 package filesystem;
 
 import java.io.File;
-import java.util.Iterator;
+import java.util.Arrays;
 
 import javax.swing.JFileChooser;
 import javax.swing.filechooser.FileNameExtensionFilter;
@@ -9,6 +9,7 @@ import javax.swing.filechooser.FileNameExtensionFilter;
 import datastructures.DS_GenericList;
 import datastructures.DS_House;
 import datastructures.DS_Path;
+import datastructures.DS_Profile;
 import errors.EX_Exception;
 import errors.EX_Exception.ErrorType;
 
@@ -21,6 +22,23 @@ public class PA_FileSystem
 	// Path file system object
 	private FS_Path fspath;
 
+	// Travel profile store and file (kept next to the path file, the path records have a fixed size)
+	private FS_Profiles fsprofiles;
+
+	// Depot file object and the house IDs of the depots (only the pizzeria, house 0, until more are added)
+	private FS_Depots fsdepots;
+	private int[] depots;
+	private int depotCount;
+
+	// Map files in use (house file, path file)
+	private File[] files;
+
+	// Revision of the map content (incremented on every edit of the houses or paths)
+	private int revision;
+
+	// Objects to notify whenever the map content is edited
+	private DS_GenericList<FS_Listener> listeners;
+
 	/**
 	 * File system constructor (initialise the entire data structure and setup the file system link
 	 * @param create decides whether to load or create a map
@@ -33,6 +51,21 @@ public class PA_FileSystem
 			this.fshouse = new FS_House(files[0], create);
 			this.fspath = new FS_Path(files[1], this.fshouse, create);
 			this.fshouse.setFSPath(this.fspath);
+			this.files = files;
+			this.fsprofiles = new FS_Profiles(this.getMapFile("mpt"));
+			if(create == true)
+				this.fsprofiles.write(this.fspath.getContentList());
+			else
+				this.fsprofiles.read(this.fspath.getContentList());
+			this.fsdepots = new FS_Depots(this.getMapFile("mpd"));
+			this.depots = (create == true) ? null : this.fsdepots.read();
+			if(this.depots == null) {
+				this.depots = new int[] { 0 };
+				this.fsdepots.write(this.depots, 1);
+			}
+			this.depotCount = this.depots.length;
+			this.revision = 0;
+			this.listeners = new DS_GenericList<FS_Listener>();
 		} else {
 			throw new EX_Exception(1, ErrorType.ERROR_FILESYSTEM);
 		}
@@ -69,6 +102,34 @@ public class PA_FileSystem
 		return result;
 	}
 
+	/**
+	 * Get a file stored next to the map files (same name, different extension)
+	 * @param extension of the file (without the dot)
+	 * @return the file object (the file may not exist yet)
+	 */
+	public File getMapFile(String extension)
+	{
+		return new File(FS_Utils.getFilename(this.files[0]) + "." + extension);
+	}
+
+	/**
+	 * Register an object to notify whenever the map content is edited
+	 * @param listener to notify
+	 */
+	public void addListener(FS_Listener listener)
+	{
+		this.listeners.add(listener);
+	}
+
+	/**
+	 * Stop notifying an object of the map edits
+	 * @param listener to remove
+	 */
+	public void removeListener(FS_Listener listener)
+	{
+		this.listeners.remove(listener);
+	}
+
 	/**
 	 * Add a house to the house file system
 	 * @param house object to add
@@ -76,7 +137,10 @@ public class PA_FileSystem
 	 */
 	public void addHouse(DS_House house) throws EX_Exception
 	{
-		this.fshouse.add(house);
+		this.revision++;
+		if(this.fshouse.add(house))
+			for(FS_Listener listener : this.listeners)
+				listener.houseAdded(house);
 	}
 
 	/**
@@ -87,7 +151,12 @@ public class PA_FileSystem
 	 */
 	public boolean addPath(DS_Path path) throws EX_Exception
 	{
-		return this.fspath.add(path);
+		this.revision++;
+		if(this.fspath.add(path) == false)
+			return false;
+		for(FS_Listener listener : this.listeners)
+			listener.pathAdded(path);
+		return true;
 	}
 
 	/**
@@ -116,7 +185,48 @@ public class PA_FileSystem
 	 */
 	public boolean removeHouse(int houseID) throws EX_Exception
 	{
-		return this.fshouse.remove(this.fshouse.getHouseFromID(houseID));
+		return this.removeHouses(new int[] { houseID }) == 1;
+	}
+
+	/**
+	 * Remove several houses from the file system at once (the listeners hear about every path first, then every house)
+	 * @param houseIDs of the houses to remove (IDs without a house are skipped)
+	 * @return the number of houses removed
+	 * @throws PRP_Exception
+	 */
+	public int removeHouses(int[] houseIDs) throws EX_Exception
+	{
+		this.revision++;
+		DS_GenericList<DS_House> houses = new DS_GenericList<DS_House>();
+		boolean[] removed = new boolean[this.fshouse.getTotalSpaces()];
+		for(int id : houseIDs) {
+			DS_House house = this.fshouse.getHouseFromID(id);
+			if(house == null || removed[id]) continue;
+			removed[id] = true;
+			houses.add(house);
+			this.removeDepot(id);
+		}
+
+		// Remember the connected paths, the house file system removes them along with the houses
+		// (a path whose start house is removed too is only listed with its start house)
+		DS_GenericList<DS_Path> paths = new DS_GenericList<DS_Path>();
+		for(DS_House house : houses) {
+			for(DS_Path path : house.getPaths())
+				paths.add(path);
+			for(DS_Path path : house.getIncomingPaths())
+				if(removed[path.getStart().getID()] == false)
+					paths.add(path);
+		}
+
+		int count = this.fshouse.remove(houses);
+		this.removeProfiles(paths);
+		for(FS_Listener listener : this.listeners) {
+			for(DS_Path path : paths)
+				listener.pathRemoved(path);
+			for(DS_House house : houses)
+				listener.houseRemoved(house);
+		}
+		return count;
 	}
 
 	/**
@@ -127,7 +237,31 @@ public class PA_FileSystem
 	 */
 	public boolean removePath(int pathID) throws EX_Exception
 	{
-		return this.fspath.remove(this.fspath.getPathFromID(pathID));
+		this.revision++;
+		DS_Path path = this.fspath.getPathFromID(pathID);
+		if(this.fspath.remove(path) == false)
+			return false;
+		DS_GenericList<DS_Path> paths = new DS_GenericList<DS_Path>();
+		paths.add(path);
+		this.removeProfiles(paths);
+		for(FS_Listener listener : this.listeners)
+			listener.pathRemoved(path);
+		return true;
+	}
+
+	/**
+	 * Drop the travel profiles of removed paths from the profile file (their IDs can be given to new paths)
+	 * @param paths that were removed
+	 * @throws PRP_Exception
+	 */
+	private void removeProfiles(DS_GenericList<DS_Path> paths) throws EX_Exception
+	{
+		for(DS_Path path : paths) {
+			if(path.getProfile() != null) {
+				this.fsprofiles.write(this.fspath.getContentList());
+				return;
+			}
+		}
 	}
 
 	/**
@@ -159,6 +293,15 @@ public class PA_FileSystem
 		return this.fshouse.getTotalSpaces();
 	}
 
+	/**
+	 * Get the revision of the map content (changes whenever a house or path is edited)
+	 * @return the current revision number
+	 */
+	public int getRevision()
+	{
+		return this.revision;
+	}
+
 	/**
 	 * Overwrite an existing path with new house data
 	 * @param id where the new data is to be written
@@ -168,7 +311,12 @@ public class PA_FileSystem
 	 */
 	public boolean overwriteHouse(int id, DS_House house) throws EX_Exception
 	{
-		return this.fshouse.overwriteHouse(id, house);
+		this.revision++;
+		if(this.fshouse.overwriteHouse(id, house) == false)
+			return false;
+		for(FS_Listener listener : this.listeners)
+			listener.houseChanged(house);
+		return true;
 	}
 
 	/**
@@ -180,7 +328,14 @@ public class PA_FileSystem
 	 */
 	public boolean overwritePath(int id, DS_Path path) throws EX_Exception
 	{
-		return this.fspath.overwritePath(id, path);
+		this.revision++;
+		int oldWeight = this.fspath.getRecordWeight(id);
+		if(this.fspath.overwritePath(id, path) == false)
+			return false;
+		if(oldWeight != path.getWeight())
+			for(FS_Listener listener : this.listeners)
+				listener.pathWeightChanged(path, oldWeight);
+		return true;
 	}
 
 	/**
@@ -192,18 +347,107 @@ public class PA_FileSystem
 	public void setPathWeight(int id, int weight) throws EX_Exception
 	{
 		try {
-			Iterator<DS_Path> itr = this.fspath.getContentList().iterator();
-			while(itr.hasNext()) {
-				DS_Path path = itr.next();
-				if(path.getID() == id) {
-					path.setWeight(weight);
-					this.overwritePath(id, path);
-					break;
-				}
+			DS_Path path = this.fspath.getPathFromID(id);
+			if(path != null) {
+				path.setWeight(weight);
+				this.overwritePath(id, path);
 			}
 		} catch(Exception e) {
 			throw new EX_Exception("Failed to change the requested paths' timings...", ErrorType.ERROR_FILESYSTEM, e);
 		}
 	}
 
+	/**
+	 * Set the travel profile of a path (paths with the same factors share a single profile)
+	 * @param id of the path to edit
+	 * @param factors travel time factor at the start of every time slot, in percent of the path weight
+	 * (DS_Profile.SLOTS entries, null to make the weight independent of the time)
+	 * @throws PRP_Exception
+	 */
+	public void setPathProfile(int id, short[] factors) throws EX_Exception
+	{
+		if(factors != null && factors.length != DS_Profile.SLOTS)
+			throw new EX_Exception("A travel profile needs " + DS_Profile.SLOTS + " time slots", ErrorType.ERROR_FILESYSTEM);
+		DS_Path path = this.fspath.getPathFromID(id);
+		if(path == null)
+			throw new EX_Exception("No path with ID " + id, ErrorType.ERROR_FILESYSTEM);
+
+		this.revision++;
+		path.setProfile((factors == null) ? null : this.fsprofiles.intern(new DS_Profile(factors)));
+		this.fsprofiles.write(this.fspath.getContentList());
+	}
+
+	/**
+	 * Get the depots the pizzas can be delivered from
+	 * @return a new list with the depot houses, the pizzeria first
+	 */
+	public DS_GenericList<DS_House> getDepots()
+	{
+		DS_GenericList<DS_House> result = new DS_GenericList<DS_House>();
+		for(int i = 0; i < this.depotCount; i++) {
+			DS_House house = this.fshouse.getHouseFromID(this.depots[i]);
+			if(house != null) result.add(house);
+		}
+		return result;
+	}
+
+	/**
+	 * Determine if a house is a depot
+	 * @param id of the house
+	 * @return true if it is, false otherwise
+	 */
+	public boolean isDepot(int id)
+	{
+		for(int i = 0; i < this.depotCount; i++)
+			if(this.depots[i] == id) return true;
+		return false;
+	}
+
+	/**
+	 * Make a house a depot
+	 * @param id of the house
+	 * @return true on success, false if it already is one
+	 * @throws PRP_Exception
+	 */
+	public boolean addDepot(int id) throws EX_Exception
+	{
+		DS_House house = this.fshouse.getHouseFromID(id);
+		if(house == null)
+			throw new EX_Exception("No house with ID " + id, ErrorType.ERROR_FILESYSTEM);
+		if(this.isDepot(id))
+			return false;
+
+		if(this.depotCount == this.depots.length)
+			this.depots = Arrays.copyOf(this.depots, this.depotCount * 2 + 1);
+		this.depots[this.depotCount++] = id;
+		this.fsdepots.write(this.depots, this.depotCount);
+		for(FS_Listener listener : this.listeners)
+			listener.depotAdded(house);
+		return true;
+	}
+
+	/**
+	 * Stop using a house as a depot
+	 * @param id of the house
+	 * @return true on success, false if it isn't one
+	 * @throws PRP_Exception
+	 */
+	public boolean removeDepot(int id) throws EX_Exception
+	{
+		int index = 0;
+		while(index < this.depotCount && this.depots[index] != id)
+			index++;
+		if(index == this.depotCount)
+			return false;
+
+		System.arraycopy(this.depots, index + 1, this.depots, index, this.depotCount - index - 1);
+		this.depotCount--;
+		this.fsdepots.write(this.depots, this.depotCount);
+		DS_House house = this.fshouse.getHouseFromID(id);
+		if(house != null)
+			for(FS_Listener listener : this.listeners)
+				listener.depotRemoved(house);
+		return true;
+	}
+
 }
@@ -0,0 +1,433 @@
+package graphsearch;
+
+import java.util.Arrays;
+
+import javax.swing.JProgressBar;
+
+import datastructures.DS_House;
+import datastructures.DS_IndexedHeap;
+import datastructures.DS_Path;
+import errors.EX_Exception;
+import errors.EX_Exception.ErrorType;
+import filesystem.FS_Landmarks;
+import filesystem.FS_Listener;
+import filesystem.PA_FileSystem;
+
+public class GS_ALT extends GS_Search implements FS_Listener
+{
+
+	// Default number of landmarks (the pizzeria is always one of them)
+	public static final int DEFAULT_LANDMARKS = 8;
+
+	// Extension of the landmark table file stored next to the map files
+	public static final String FILE_EXTENSION = "mpl";
+
+	// Number of landmarks wanted
+	private int count;
+
+	// Landmark table file
+	private FS_Landmarks storage;
+
+	// House IDs of the landmarks
+	private int[] landmarks;
+
+	// Distances from every landmark to every house, and from every house to every landmark (-1 if unreachable)
+	private int[][] forward, backward;
+
+	// Priority queue used by the table computations
+	private DS_IndexedHeap<DS_House> queue;
+
+	// Per query search state
+	private GS_SearchContext context;
+
+	/**
+	 * ALT graph searching class constructor (uses the default number of landmarks)
+	 * @param fs to use with this object
+	 * @param progressbar object to report the progress of current operations
+	 * @throws PRP_Exception
+	 */
+	public GS_ALT(PA_FileSystem fs, JProgressBar progressbar) throws EX_Exception
+	{
+		this(fs, progressbar, DEFAULT_LANDMARKS);
+	}
+
+	/**
+	 * ALT graph searching class constructor
+	 * (loads the landmark tables or computes them if they are out of date or the file can't be read)
+	 * @param fs to use with this object
+	 * @param progressbar object to report the progress of current operations
+	 * @param count number of landmarks to use
+	 * @throws PRP_Exception
+	 */
+	public GS_ALT(PA_FileSystem fs, JProgressBar progressbar, int count) throws EX_Exception
+	{
+		super(fs, progressbar);
+		this.count = Math.max(1, count);
+		this.queue = new DS_IndexedHeap<DS_House>(fs.getNumHouses());
+		this.context = new GS_SearchContext(fs.getNumHouses());
+		this.storage = new FS_Landmarks(fs.getMapFile(FILE_EXTENSION));
+		boolean loaded;
+		try {
+			loaded = this.storage.read();
+		} catch(EX_Exception exception) {
+			// The file is only a cache of the tables, an unreadable one is rebuilt like an out of date one
+			loaded = false;
+		}
+		if(loaded && this.storage.getSignature() == this.signature()
+				&& this.storage.getLandmarks().length == this.getWantedCount()
+				&& (this.storage.getLandmarks().length == 0 || this.storage.getForward()[0].length == fs.getNumHouses())) {
+			this.landmarks = this.storage.getLandmarks();
+			this.forward = this.storage.getForward();
+			this.backward = this.storage.getBackward();
+		} else {
+			this.recompute();
+		}
+		fs.addListener(this);
+	}
+
+	/**
+	 * Start the graph searching process and link up the two requested houses
+	 * (A* search using the landmark distances as lower bounds)
+	 * @param start house
+	 * @param end house
+	 * @return the shortest route
+	 * @throws EX_Exception
+	 */
+	public GS_Route search(DS_House start, DS_House end) throws EX_Exception
+	{
+		if(this.landmarks.length < this.getWantedCount())
+			this.recompute();
+
+		this.progressStart();
+		GS_SearchContext context = this.context;
+		try {
+			DS_IndexedHeap<DS_House> queue = context.getQueue();
+			this.settled = 0;
+			context.reset(this.filesystem.getNumHouses());
+			context.setDistance(start.getID(), 0, -1);
+			queue.update(start.getID(), start, this.estimate(start.getID(), end.getID()));
+			while(!queue.isEmpty()) {
+				DS_House current = queue.poll();
+				int id = current.getID();
+				context.setSettled(id);
+				this.settled++;
+				this.progressStep();
+				if(current == end) break;
+				for(DS_Path path : current.getPaths()) {
+					DS_House next = path.getEnd();
+					int nid = next.getID();
+					if(context.isSettled(nid)) continue;
+					int distance = context.getDistance(id) + path.getWeight();
+					if(!context.isReached(nid) || distance < context.getDistance(nid)) {
+						context.setDistance(nid, distance, path.getID());
+						queue.update(nid, next, distance + this.estimate(nid, end.getID()));
+					}
+				}
+			}
+		} catch(Exception exception) {
+			throw new EX_Exception(exception.getMessage(), ErrorType.ERROR_GRAPHSEARCHING);
+		}
+		GS_Route route = this.buildRoute(context, this.getGraph(), start, end);
+		this.progressEnd();
+		return route;
+	}
+
+	/**
+	 * Get a lower bound of the time needed to go from one house to another (triangle inequality)
+	 * @param from house ID
+	 * @param to house ID
+	 * @return the estimated time, never more than the real shortest time
+	 */
+	public int estimate(int from, int to)
+	{
+		int best = 0;
+		for(int i = 0; i < this.landmarks.length; i++) {
+			int[] f = this.forward[i], b = this.backward[i];
+			if(f[from] != -1 && f[to] != -1)
+				best = Math.max(best, f[to] - f[from]);
+			if(b[from] != -1 && b[to] != -1)
+				best = Math.max(best, b[from] - b[to]);
+		}
+		return best;
+	}
+
+	/**
+	 * Get the house IDs of the landmarks in use
+	 * @return array of house IDs
+	 */
+	public int[] getLandmarks()
+	{
+		return this.landmarks;
+	}
+
+	/**
+	 * Select the landmarks again and recompute and save every table
+	 * @throws PRP_Exception
+	 */
+	public void recompute() throws EX_Exception
+	{
+		int n = this.filesystem.getNumHouses();
+		int k = this.getWantedCount();
+		this.landmarks = new int[k];
+		this.forward = new int[k][n];
+		this.backward = new int[k][n];
+		for(int i = 0; i < k; i++) {
+			DS_House landmark = (i == 0) ? this.filesystem.getHouseByID(0) : this.farthest(i);
+			if(landmark == null) landmark = this.filesystem.getHouseList().iterator().next();
+			this.landmarks[i] = landmark.getID();
+			this.computeTables(i);
+		}
+		this.storage.write(this.signature(), this.landmarks, this.forward, this.backward);
+	}
+
+	/**
+	 * Get the number of landmarks that can be used on the current map
+	 * @return the number of landmarks
+	 */
+	private int getWantedCount()
+	{
+		return Math.min(this.count, this.filesystem.getHouseList().size());
+	}
+
+	/**
+	 * Find the house furthest away from the landmarks chosen so far
+	 * (houses no landmark can reach or be reached from come first)
+	 * @param chosen number of landmarks already chosen (landmarks set to -1 are ignored)
+	 * @return the house to use as the next landmark
+	 */
+	private DS_House farthest(int chosen)
+	{
+		DS_House result = null;
+		long best = -1;
+		for(DS_House house : this.filesystem.getHouseList()) {
+			int id = house.getID();
+			long score = Long.MAX_VALUE;
+			for(int i = 0; i < chosen; i++) {
+				if(this.landmarks[i] == -1) continue;
+				if(this.landmarks[i] == id) {
+					score = -1;
+					break;
+				}
+				if(this.forward[i][id] != -1 || this.backward[i][id] != -1)
+					score = Math.min(score, (long)Math.max(0, this.forward[i][id]) + Math.max(0, this.backward[i][id]));
+			}
+			if(score > best) {
+				best = score;
+				result = house;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Compute both distance tables of a landmark
+	 * @param i index of the landmark
+	 */
+	private void computeTables(int i)
+	{
+		DS_House landmark = this.filesystem.getHouseByID(this.landmarks[i]);
+		this.distances(landmark, true, this.forward[i]);
+		this.distances(landmark, false, this.backward[i]);
+	}
+
+	/**
+	 * One to all Dijkstra search storing the distances into an array
+	 * @param source house to search from
+	 * @param outgoing follows the paths forwards if true, backwards (distances to the source) if false
+	 * @param distance array receiving the distances, indexed by house ID (-1 if unreachable)
+	 */
+	private void distances(DS_House source, boolean outgoing, int[] distance)
+	{
+		Arrays.fill(distance, -1);
+		this.queue.clear();
+		this.queue.ensureCapacity(distance.length);
+		distance[source.getID()] = 0;
+		this.queue.update(source.getID(), source, 0);
+		while(!this.queue.isEmpty()) {
+			DS_House current = this.queue.poll();
+			int d = distance[current.getID()];
+			for(DS_Path path : outgoing ? current.getPaths() : current.getIncomingPaths()) {
+				DS_House next = outgoing ? path.getEnd() : path.getStart();
+				int nd = d + path.getWeight();
+				if(distance[next.getID()] == -1 || nd < distance[next.getID()]) {
+					distance[next.getID()] = nd;
+					this.queue.update(next.getID(), next, nd);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Compute an order independent signature of the map (houses, paths and weights)
+	 * @return the signature
+	 */
+	private long signature()
+	{
+		long signature = this.mix(this.filesystem.getNumHouses());
+		for(DS_House house : this.filesystem.getHouseList())
+			signature += this.mix(house.getID());
+		for(DS_Path path : this.filesystem.getPathList())
+			signature += this.mix(((long)path.getID() << 32) ^ this.mix(((long)path.getStart().getID() << 40)
+					^ ((long)path.getEnd().getID() << 20) ^ path.getWeight()));
+		return signature;
+	}
+
+	/**
+	 * Scramble the bits of a number (finaliser of the SplitMix64 generator)
+	 * @param value to scramble
+	 * @return the scrambled value
+	 */
+	private long mix(long value)
+	{
+		value = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+		value = (value ^ (value >>> 27)) * 0x94d049bb133111ebL;
+		return value ^ (value >>> 31);
+	}
+
+	/**
+	 * Rebuild the tables affected by a path change and save them
+	 * @param path that changed
+	 * @param oldWeight of the path (-1 if the path did not exist)
+	 * @param newWeight of the path (-1 if the path no longer exists)
+	 * @throws PRP_Exception
+	 */
+	private void update(DS_Path path, int oldWeight, int newWeight) throws EX_Exception
+	{
+		int u = path.getStart().getID(), v = path.getEnd().getID();
+		boolean[] changed = new boolean[this.landmarks.length];
+		for(int i = 0; i < this.landmarks.length; i++) {
+			// A landmark whose house is being removed is replaced by houseRemoved once its paths are handled
+			if(this.filesystem.getHouseByID(this.landmarks[i]) == null) continue;
+			if(this.isAffected(this.forward[i], u, v, oldWeight, newWeight)
+					|| this.isAffected(this.backward[i], v, u, oldWeight, newWeight)) {
+				this.computeTables(i);
+				changed[i] = true;
+			}
+		}
+		this.storage.update(this.signature(), changed);
+	}
+
+	/**
+	 * Determine if a path change can alter a distance table
+	 * @param distance table (distances from the landmark, or to the landmark with the path reversed)
+	 * @param from house ID the path leaves in the table's direction
+	 * @param to house ID the path enters in the table's direction
+	 * @param oldWeight of the path (-1 if the path did not exist)
+	 * @param newWeight of the path (-1 if the path no longer exists)
+	 * @return true if the table must be rebuilt
+	 */
+	private boolean isAffected(int[] distance, int from, int to, int oldWeight, int newWeight)
+	{
+		if(distance[from] == -1)
+			return false;
+		// The path now gives a shorter way to its end
+		if(newWeight != -1 && (distance[to] == -1 || distance[from] + newWeight < distance[to]))
+			return true;
+		// The path was on a shortest route and got longer (or disappeared)
+		return oldWeight != -1 && (newWeight == -1 || newWeight > oldWeight) && distance[from] + oldWeight == distance[to];
+	}
+
+	/**
+	 * Grow the tables when a new house ID appears
+	 * @param house that was added
+	 * @throws PRP_Exception
+	 */
+	public void houseAdded(DS_House house) throws EX_Exception
+	{
+		int n = this.filesystem.getNumHouses();
+		if(this.landmarks.length > 0 && this.forward[0].length >= n)
+			return;
+		for(int i = 0; i < this.landmarks.length; i++) {
+			int length = this.forward[i].length;
+			this.forward[i] = Arrays.copyOf(this.forward[i], n);
+			this.backward[i] = Arrays.copyOf(this.backward[i], n);
+			Arrays.fill(this.forward[i], length, n, -1);
+			Arrays.fill(this.backward[i], length, n, -1);
+		}
+		this.storage.write(this.signature(), this.landmarks, this.forward, this.backward);
+	}
+
+	/**
+	 * Replace a removed house if it was a landmark (its paths have already been handled,
+	 * so it is unreachable in every table)
+	 * @param house that was removed
+	 * @throws PRP_Exception
+	 */
+	public void houseRemoved(DS_House house) throws EX_Exception
+	{
+		boolean[] changed = new boolean[this.landmarks.length];
+		for(int i = 0; i < this.landmarks.length; i++) {
+			if(this.landmarks[i] != house.getID()) continue;
+			this.landmarks[i] = -1;
+			DS_House replacement = this.farthest(this.landmarks.length);
+			if(replacement == null || replacement.getID() == house.getID()) {
+				// No house left to replace it with, use fewer landmarks
+				this.recompute();
+				return;
+			}
+			this.landmarks[i] = replacement.getID();
+			this.computeTables(i);
+			changed[i] = true;
+		}
+		this.storage.update(this.signature(), changed);
+	}
+
+	/**
+	 * House details do not affect the landmark tables
+	 * @param house that was changed
+	 */
+	public void houseChanged(DS_House house)
+	{
+		//
+	}
+
+	/**
+	 * Update the tables affected by a new path
+	 * @param path that was added
+	 * @throws PRP_Exception
+	 */
+	public void pathAdded(DS_Path path) throws EX_Exception
+	{
+		this.update(path, -1, path.getWeight());
+	}
+
+	/**
+	 * Update the tables affected by a removed path
+	 * @param path that was removed
+	 * @throws PRP_Exception
+	 */
+	public void pathRemoved(DS_Path path) throws EX_Exception
+	{
+		this.update(path, path.getWeight(), -1);
+	}
+
+	/**
+	 * Update the tables affected by a path weight change
+	 * @param path that was changed
+	 * @param oldWeight of the path before the change
+	 * @throws PRP_Exception
+	 */
+	public void pathWeightChanged(DS_Path path, int oldWeight) throws EX_Exception
+	{
+		this.update(path, oldWeight, path.getWeight());
+	}
+
+	/**
+	 * Depots do not affect the landmark tables
+	 * @param house that became a depot
+	 */
+	public void depotAdded(DS_House house)
+	{
+		//
+	}
+
+	/**
+	 * Depots do not affect the landmark tables
+	 * @param house that was a depot
+	 */
+	public void depotRemoved(DS_House house)
+	{
+		//
+	}
+
+}
@@ -0,0 +1,139 @@
+package graphsearch;
+
+import javax.swing.JProgressBar;
+
+import datastructures.DS_House;
+import datastructures.DS_IndexedHeap;
+import datastructures.DS_Path;
+import errors.EX_Exception;
+import errors.EX_Exception.ErrorType;
+import filesystem.PA_FileSystem;
+
+public class GS_AStar extends GS_Search
+{
+
+	// Per query search state (the queue is ordered by distance + estimate)
+	private GS_SearchContext context;
+
+	// Smallest weight per unit of map distance found on any path (scales the heuristic)
+	private double scale;
+
+	// Map revision the scale was computed for (-1 if never computed)
+	private int scaleRevision;
+
+	/**
+	 * A* graph searching class constructor
+	 * @param fs to use with this object
+	 * @param progressbar object to report the progress of current operations
+	 */
+	public GS_AStar(PA_FileSystem fs, JProgressBar progressbar)
+	{
+		super(fs, progressbar);
+		this.context = new GS_SearchContext(fs.getNumHouses());
+		this.scaleRevision = -1;
+	}
+
+	/**
+	 * Start the graph searching process and link up the two requested houses
+	 * (the search is guided towards the end house by its map coordinates)
+	 * @param start house
+	 * @param end house
+	 * @return the shortest route
+	 * @throws EX_Exception
+	 */
+	public GS_Route search(DS_House start, DS_House end) throws EX_Exception
+	{
+		this.progressStart();
+		GS_Graph graph = this.getGraph();
+		this.astar(graph, start, end);
+		GS_Route route = this.buildRoute(this.context, graph, start, end);
+		this.progressEnd();
+		return route;
+	}
+
+	/**
+	 * Get the lowest possible time needed to go from one house to another
+	 * (straight line distance scaled by the cheapest weight per unit of any path)
+	 * @param from house
+	 * @param to house
+	 * @return the estimated time, never more than the real shortest time
+	 */
+	public int estimate(DS_House from, DS_House to)
+	{
+		this.updateScale();
+		return (int)(this.scale * this.length(from, to));
+	}
+
+	/**
+	 * Recompute the heuristic scale if the map was edited since it was last computed
+	 * (weights and house positions both change the scale)
+	 */
+	private void updateScale()
+	{
+		if(this.scaleRevision == this.filesystem.getRevision()) return;
+
+		double scale = Double.MAX_VALUE;
+		for(DS_Path path : this.filesystem.getPathList()) {
+			double length = this.length(path.getStart(), path.getEnd());
+			if(length > 0)
+				scale = Math.min(scale, path.getWeight() / length);
+		}
+		// Shave off rounding errors so the estimate can never overshoot the real time
+		this.scale = (scale == Double.MAX_VALUE) ? 0 : scale * (1 - 1e-9);
+		this.scaleRevision = this.filesystem.getRevision();
+	}
+
+	/**
+	 * Get the straight line distance between two houses on the map canvas
+	 * @param from house
+	 * @param to house
+	 * @return the distance in canvas units
+	 */
+	private double length(DS_House from, DS_House to)
+	{
+		double dx = from.getX() - to.getX();
+		double dy = from.getY() - to.getY();
+		return Math.sqrt(dx * dx + dy * dy);
+	}
+
+	/**
+	 * A* graph searching procedure (stops as soon as the end house is settled)
+	 * @param graph snapshot of the map to search
+	 * @param start house to search from
+	 * @param end house to search for
+	 * @throws EX_Exception
+	 */
+	private void astar(GS_Graph graph, DS_House start, DS_House end) throws EX_Exception
+	{
+		try {
+			GS_SearchContext context = this.context;
+			DS_IndexedHeap<DS_House> queue = context.getQueue();
+			int[] offsets = graph.getOffsets(), targets = graph.getTargets(), weights = graph.getWeights(), edges = graph.getEdges();
+			this.settled = 0;
+			this.updateScale();
+			context.reset(graph.getHouseCount());
+			context.setDistance(start.getID(), 0, -1);
+			queue.update(start.getID(), start, this.estimate(start, end));
+			while(!queue.isEmpty()) {
+				int id = queue.pollID();
+				context.setSettled(id);
+				this.settled++;
+				this.progressStep();
+				if(id == end.getID()) break;
+				int d = context.getDistance(id);
+				for(int e = offsets[id]; e < offsets[id + 1]; e++) {
+					int nid = targets[e];
+					if(context.isSettled(nid)) continue;
+					int distance = d + weights[e];
+					if(!context.isReached(nid) || distance < context.getDistance(nid)) {
+						context.setDistance(nid, distance, edges[e]);
+						queue.update(nid, null, distance + this.estimate(graph.getHouse(nid), end));
+					}
+				}
+			}
+		} catch(Exception exception) {
+			throw new EX_Exception(exception.getMessage(), ErrorType.ERROR_GRAPHSEARCHING);
+		}
+	}
+
+}
@@ -0,0 +1,165 @@
+package graphsearch;
+
+import java.util.Random;
+
+import datastructures.DS_House;
+import errors.EX_Exception;
+import errors.EX_Exception.ErrorType;
+import filesystem.PA_FileSystem;
+
+public class GS_Benchmark
+{
+
+	// Default number of random queries answered by every engine
+	public static final int DEFAULT_QUERIES = 1000;
+
+	// Default number of random sources of the whole map computations
+	public static final int DEFAULT_SOURCES = 10;
+
+	// Map to run the queries on
+	private final PA_FileSystem filesystem;
+
+	/**
+	 * Benchmark class constructor
+	 * @param fs to use with this object
+	 */
+	public GS_Benchmark(PA_FileSystem fs)
+	{
+		this.filesystem = fs;
+	}
+
+	/**
+	 * Time several engines on the same random queries (the answers are checked against each other)
+	 * @param engines to time
+	 * @param queries number of random start and end house pairs
+	 * @param seed of the random pairs
+	 * @return total time spent by every engine (in nanoseconds)
+	 * @throws EX_Exception if two engines disagree on the length of a route
+	 */
+	public long[] run(GS_Search[] engines, int queries, long seed) throws EX_Exception
+	{
+		DS_House[] houses = this.filesystem.getHouseList().toArray(DS_House.class);
+		long[] time = new long[engines.length];
+		if(houses.length == 0) return time;
+
+		Random random = new Random(seed);
+		for(int q = 0; q < queries; q++) {
+			DS_House start = houses[random.nextInt(houses.length)];
+			DS_House end = houses[random.nextInt(houses.length)];
+			int expected = 0;
+			for(int e = 0; e < engines.length; e++) {
+				long begin = System.nanoTime();
+				int distance = this.distance(engines[e], start, end);
+				time[e] += System.nanoTime() - begin;
+				if(e == 0)
+					expected = distance;
+				else if(distance != expected)
+					throw new EX_Exception("Engines disagree from " + start + " to " + end + ": " + expected + " and " + distance,
+							ErrorType.ERROR_GRAPHSEARCHING);
+			}
+		}
+		return time;
+	}
+
+	/**
+	 * Time delta-stepping against Dijkstra on computations of the distance to every house
+	 * (the distances found by both are checked against each other)
+	 * @param stepping delta-stepping object to time
+	 * @param sources number of random source houses
+	 * @param seed of the random sources
+	 * @return total time spent by Dijkstra and by delta-stepping (in nanoseconds)
+	 * @throws EX_Exception if the two disagree on the distance of a house
+	 */
+	public long[] runWholeMap(GS_DeltaStepping stepping, int sources, long seed) throws EX_Exception
+	{
+		DS_House[] houses = this.filesystem.getHouseList().toArray(DS_House.class);
+		long[] time = new long[2];
+		if(houses.length == 0) return time;
+
+		GS_Dijkstra dijkstra = new GS_Dijkstra(this.filesystem, null);
+		Random random = new Random(seed);
+		for(int s = 0; s < sources; s++) {
+			DS_House source = houses[random.nextInt(houses.length)];
+			long begin = System.nanoTime();
+			dijkstra.searchMany(source, null, 0);
+			time[0] += System.nanoTime() - begin;
+			begin = System.nanoTime();
+			int[] distance = stepping.compute(source);
+			time[1] += System.nanoTime() - begin;
+			for(DS_House house : houses)
+				if(distance[house.getID()] != dijkstra.getDistance(house))
+					throw new EX_Exception("Delta-stepping disagrees with Dijkstra from " + source + " to " + house + ": "
+							+ dijkstra.getDistance(house) + " and " + distance[house.getID()], ErrorType.ERROR_GRAPHSEARCHING);
+		}
+		return time;
+	}
+
+	/**
+	 * Get the length of the shortest route found by an engine
+	 * @param engine to search with
+	 * @param start house
+	 * @param end house
+	 * @return the length (-1 if the end house is unreachable)
+	 * @throws EX_Exception
+	 */
+	private int distance(GS_Search engine, DS_House start, DS_House end) throws EX_Exception
+	{
+		try {
+			return engine.search(start, end).getDistance();
+		} catch(EX_Exception exception) {
+			if(exception.isIDBased() && exception.getID() == 1)
+				return -1;
+			throw exception;
+		}
+	}
+
+	/**
+	 * Compare engines on a map chosen by the user and print the average query times
+	 * @param args names of the engines to compare (Dijkstra and Dial if none), optionally followed by the number of queries;
+	 * or "delta", optionally followed by the number of threads and the number of sources, to compare delta-stepping
+	 * with Dijkstra on whole map computations
+	 */
+	public static void main(String[] args)
+	{
+		try {
+			if(args.length > 0 && args[0].equalsIgnoreCase("delta")) {
+				int threads = (args.length > 1) ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+				int sources = (args.length > 2) ? Integer.parseInt(args[2]) : DEFAULT_SOURCES;
+				PA_FileSystem fs = new PA_FileSystem(false);
+				GS_DeltaStepping stepping = new GS_DeltaStepping(fs, GS_DeltaStepping.AUTOMATIC_DELTA, threads);
+				GS_Benchmark benchmark = new GS_Benchmark(fs);
+				benchmark.runWholeMap(stepping, Math.max(1, sources / 10), 1);
+				long[] time = benchmark.runWholeMap(stepping, sources, 2);
+				stepping.shutdown();
+				System.out.println("DIJKSTRA: " + (time[0] / sources / 1000000) + " ms per map");
+				System.out.println("DELTA_STEPPING (" + threads + " threads): " + (time[1] / sources / 1000000) + " ms per map");
+				return;
+			}
+
+			int queries = DEFAULT_QUERIES, count = args.length;
+			if(count > 0 && args[count - 1].matches("[0-9]+"))
+				queries = Integer.parseInt(args[--count]);
+			GS_Search.Engine[] types = { GS_Search.Engine.DIJKSTRA, GS_Search.Engine.DIAL };
+			if(count > 0) {
+				types = new GS_Search.Engine[count];
+				for(int i = 0; i < count; i++)
+					types[i] = GS_Search.Engine.valueOf(args[i].toUpperCase());
+			}
+
+			PA_FileSystem fs = new PA_FileSystem(false);
+			GS_Search[] engines = new GS_Search[types.length];
+			for(int i = 0; i < types.length; i++)
+				engines[i] = GS_Search.create(types[i], fs, null);
+
+			GS_Benchmark benchmark = new GS_Benchmark(fs);
+			// First round warms the engines up (class loading, compilation, preprocessing)
+			benchmark.run(engines, Math.max(1, queries / 10), 1);
+			long[] time = benchmark.run(engines, queries, 2);
+			for(int i = 0; i < types.length; i++)
+				System.out.println(types[i] + ": " + (time[i] / queries / 1000) + " us per query");
+		} catch(EX_Exception exception) {
+			System.err.println(exception.getErrorTypeAsString() + ": " + exception.getMessage());
+		}
+	}
+
+}
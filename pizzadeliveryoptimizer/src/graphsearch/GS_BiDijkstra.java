@@ -0,0 +1,181 @@
+package graphsearch;
+
+import java.util.Arrays;
+
+import javax.swing.JProgressBar;
+
+import datastructures.DS_House;
+import datastructures.DS_IndexedHeap;
+import datastructures.DS_Path;
+import errors.EX_Exception;
+import errors.EX_Exception.ErrorType;
+import filesystem.PA_FileSystem;
+
+public class GS_BiDijkstra extends GS_Search
+{
+
+	// Per query state of the forward (from the start) and backward (from the end) searches
+	// (the backward search stores the path used to leave a house towards the end)
+	private GS_SearchContext forward, backward;
+
+	// Length of the best route found so far and the ID of the house where it meets (-1 if none yet)
+	private int best;
+	private int meeting;
+
+	// Snapshot of the map searched by the current query
+	private GS_Graph graph;
+
+	/**
+	 * Bidirectional Dijkstra graph searching class constructor
+	 * @param fs to use with this object
+	 * @param progressbar object to report the progress of current operations
+	 */
+	public GS_BiDijkstra(PA_FileSystem fs, JProgressBar progressbar)
+	{
+		super(fs, progressbar);
+		this.forward = new GS_SearchContext(fs.getNumHouses());
+		this.backward = new GS_SearchContext(fs.getNumHouses());
+	}
+
+	/**
+	 * Start the graph searching process and link up the two requested houses
+	 * (one search grows from the start, another one backwards from the end until they meet)
+	 * @param start house
+	 * @param end house
+	 * @return the shortest route
+	 * @throws EX_Exception
+	 */
+	public GS_Route search(DS_House start, DS_House end) throws EX_Exception
+	{
+		this.progressStart();
+		this.bidijkstra(start, end);
+		if(this.meeting == -1)
+			throw new EX_Exception(1, ErrorType.ERROR_GRAPHSEARCHING);
+		GS_Route route = this.link(start, end);
+		this.progressEnd();
+		return route;
+	}
+
+	/**
+	 * Reset both searches before a new query
+	 */
+	private void reset()
+	{
+		this.graph = this.getGraph();
+		int capacity = this.graph.getHouseCount();
+		this.forward.reset(capacity);
+		this.backward.reset(capacity);
+		this.best = Integer.MAX_VALUE;
+		this.meeting = -1;
+		this.settled = 0;
+	}
+
+	/**
+	 * Bidirectional Dijkstra graph searching procedure
+	 * @param start house to search from
+	 * @param end house to search for
+	 * @throws EX_Exception
+	 */
+	private void bidijkstra(DS_House start, DS_House end) throws EX_Exception
+	{
+		try {
+			this.reset();
+			DS_IndexedHeap<DS_House> forwardQueue = this.forward.getQueue(), backwardQueue = this.backward.getQueue();
+			this.forward.setDistance(start.getID(), 0, -1);
+			this.backward.setDistance(end.getID(), 0, -1);
+			forwardQueue.update(start.getID(), start, 0);
+			backwardQueue.update(end.getID(), end, 0);
+			if(start == end) {
+				this.best = 0;
+				this.meeting = start.getID();
+			}
+
+			while(!forwardQueue.isEmpty() && !backwardQueue.isEmpty()) {
+				// Every route not seen yet is at least as long as the sum of both queue tops
+				if((long)forwardQueue.peekKey() + backwardQueue.peekKey() >= this.best)
+					break;
+				if(forwardQueue.size() <= backwardQueue.size())
+					this.forwardStep();
+				else
+					this.backwardStep();
+				this.progressStep();
+			}
+		} catch(Exception exception) {
+			throw new EX_Exception(exception.getMessage(), ErrorType.ERROR_GRAPHSEARCHING);
+		}
+	}
+
+	/**
+	 * Settle the closest house of the forward search and relax its outgoing paths
+	 */
+	private void forwardStep()
+	{
+		int[] offsets = this.graph.getOffsets(), targets = this.graph.getTargets(), weights = this.graph.getWeights(), edges = this.graph.getEdges();
+		int id = this.forward.getQueue().pollID();
+		this.forward.setSettled(id);
+		this.settled++;
+		int d = this.forward.getDistance(id);
+		for(int e = offsets[id]; e < offsets[id + 1]; e++) {
+			int nid = targets[e];
+			if(this.forward.isSettled(nid)) continue;
+			int distance = d + weights[e];
+			if(!this.forward.isReached(nid) || distance < this.forward.getDistance(nid)) {
+				this.forward.setDistance(nid, distance, edges[e]);
+				this.forward.getQueue().update(nid, null, distance);
+				if(this.backward.isReached(nid) && distance + this.backward.getDistance(nid) < this.best) {
+					this.best = distance + this.backward.getDistance(nid);
+					this.meeting = nid;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Settle the closest house of the backward search and relax its incoming paths
+	 */
+	private void backwardStep()
+	{
+		int[] offsets = this.graph.getInOffsets(), sources = this.graph.getSources(), weights = this.graph.getInWeights(), edges = this.graph.getInEdges();
+		int id = this.backward.getQueue().pollID();
+		this.backward.setSettled(id);
+		this.settled++;
+		int d = this.backward.getDistance(id);
+		for(int e = offsets[id]; e < offsets[id + 1]; e++) {
+			int pid = sources[e];
+			if(this.backward.isSettled(pid)) continue;
+			int distance = d + weights[e];
+			if(!this.backward.isReached(pid) || distance < this.backward.getDistance(pid)) {
+				this.backward.setDistance(pid, distance, edges[e]);
+				this.backward.getQueue().update(pid, null, distance);
+				if(this.forward.isReached(pid) && distance + this.forward.getDistance(pid) < this.best) {
+					this.best = distance + this.forward.getDistance(pid);
+					this.meeting = pid;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Join both halves of the route at the meeting house
+	 * @param start house
+	 * @param end house
+	 * @return the route
+	 */
+	private GS_Route link(DS_House start, DS_House end)
+	{
+		DS_House meeting = this.graph.getHouse(this.meeting);
+		DS_Path[] route = new DS_Path[16];
+		int length = 0;
+		for(DS_House house = meeting; house != start; house = route[length - 1].getStart()) {
+			if(length == route.length) route = Arrays.copyOf(route, length * 2);
+			route[length++] = this.graph.getPath(this.forward.getPredecessor(house.getID()));
+		}
+		route = this.reverse(route, length);
+		for(DS_House house = meeting; house != end; house = route[length - 1].getEnd()) {
+			if(length == route.length) route = Arrays.copyOf(route, Math.max(16, length * 2));
+			route[length++] = this.graph.getPath(this.backward.getPredecessor(house.getID()));
+		}
+		return new GS_Route(start, end, Arrays.copyOf(route, length), this.settled);
+	}
+
+}
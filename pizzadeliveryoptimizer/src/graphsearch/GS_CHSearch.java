@@ -0,0 +1,172 @@
+package graphsearch;
+
+import javax.swing.JProgressBar;
+
+import datastructures.DS_GenericList;
+import datastructures.DS_House;
+import datastructures.DS_IndexedHeap;
+import datastructures.DS_Path;
+import errors.EX_Exception;
+import errors.EX_Exception.ErrorType;
+import filesystem.PA_FileSystem;
+
+public class GS_CHSearch extends GS_Search
+{
+
+	// Contraction hierarchy used by the queries (rebuilt when the map is edited)
+	private GS_ContractionHierarchy hierarchy;
+
+	// Per query state of the upward searches from the start and from the end
+	// (the predecessors are hierarchy edge indices)
+	private GS_SearchContext forward, backward;
+
+	// Length of the best route found so far and the house ID where it meets (-1 if none yet)
+	private int best;
+	private int meeting;
+
+	/**
+	 * Contraction hierarchy graph searching class constructor
+	 * @param fs to use with this object
+	 * @param progressbar object to report the progress of current operations
+	 */
+	public GS_CHSearch(PA_FileSystem fs, JProgressBar progressbar)
+	{
+		super(fs, progressbar);
+		this.hierarchy = null;
+		this.forward = new GS_SearchContext(fs.getNumHouses());
+		this.backward = new GS_SearchContext(fs.getNumHouses());
+	}
+
+	/**
+	 * Get the contraction hierarchy, preprocessing the map again if it was edited since the last build
+	 * @return an up to date hierarchy
+	 */
+	public GS_ContractionHierarchy getHierarchy()
+	{
+		if(this.hierarchy == null || this.hierarchy.getRevision() != this.filesystem.getRevision()
+				|| this.hierarchy.getCapacity() != this.filesystem.getNumHouses()) {
+			this.hierarchy = new GS_ContractionHierarchy(this.filesystem);
+		}
+		return this.hierarchy;
+	}
+
+	/**
+	 * Start the graph searching process and link up the two requested houses
+	 * (both searches only climb the hierarchy and meet at the most important house of the route)
+	 * @param start house
+	 * @param end house
+	 * @return the shortest route (shortcuts are expanded back into the map's paths)
+	 * @throws EX_Exception
+	 */
+	public GS_Route search(DS_House start, DS_House end) throws EX_Exception
+	{
+		this.progressStart();
+		DS_GenericList<DS_Path> paths;
+		try {
+			GS_ContractionHierarchy ch = this.getHierarchy();
+			this.query(ch, start.getID(), end.getID());
+			paths = (this.meeting == -1) ? null : this.unpack(ch);
+		} catch(Exception exception) {
+			throw new EX_Exception(exception.getMessage(), ErrorType.ERROR_GRAPHSEARCHING);
+		}
+		if(paths == null)
+			throw new EX_Exception(1, ErrorType.ERROR_GRAPHSEARCHING);
+		this.progressEnd();
+		return new GS_Route(start, end, paths.toArray(DS_Path.class), this.settled);
+	}
+
+	/**
+	 * Bidirectional upward search over the hierarchy
+	 * @param ch hierarchy to search
+	 * @param source house ID
+	 * @param target house ID
+	 */
+	private void query(GS_ContractionHierarchy ch, int source, int target)
+	{
+		this.forward.reset(ch.getCapacity());
+		this.backward.reset(ch.getCapacity());
+		DS_IndexedHeap<DS_House> forwardQueue = this.forward.getQueue(), backwardQueue = this.backward.getQueue();
+		this.settled = 0;
+		this.best = Integer.MAX_VALUE;
+		this.meeting = -1;
+
+		this.forward.setDistance(source, 0, -1);
+		this.backward.setDistance(target, 0, -1);
+		forwardQueue.update(source, null, 0);
+		backwardQueue.update(target, null, 0);
+		if(source == target) {
+			this.best = 0;
+			this.meeting = source;
+		}
+
+		boolean forward = true;
+		while(true) {
+			// A side is finished once its closest house is further than the best route
+			boolean forwardDone = forwardQueue.isEmpty() || forwardQueue.peekKey() >= this.best;
+			boolean backwardDone = backwardQueue.isEmpty() || backwardQueue.peekKey() >= this.best;
+			if(forwardDone && backwardDone) break;
+			if(forwardDone) forward = false;
+			else if(backwardDone) forward = true;
+
+			if(forward)
+				this.step(ch, this.forward, this.backward, true);
+			else
+				this.step(ch, this.backward, this.forward, false);
+			this.settled++;
+			this.progressStep();
+			forward = !forward;
+		}
+	}
+
+	/**
+	 * Settle the closest house of one search and relax its upward edges
+	 * @param ch hierarchy to search
+	 * @param context of this search
+	 * @param other context of the opposite search
+	 * @param forward true for the search from the start, false for the search from the end
+	 */
+	private void step(GS_ContractionHierarchy ch, GS_SearchContext context, GS_SearchContext other, boolean forward)
+	{
+		int u = context.getQueue().pollID();
+		context.setSettled(u);
+		int begin = forward ? ch.upBegin(u) : ch.downBegin(u);
+		int end = forward ? ch.upEnd(u) : ch.downEnd(u);
+		for(int i = begin; i < end; i++) {
+			int e = forward ? ch.upEdge(i) : ch.downEdge(i);
+			int v = forward ? ch.to(e) : ch.from(e);
+			int d = context.getDistance(u) + ch.weight(e);
+			if(!context.isReached(v) || d < context.getDistance(v)) {
+				context.setDistance(v, d, e);
+				context.getQueue().update(v, null, d);
+				if(other.isReached(v) && d + other.getDistance(v) < this.best) {
+					this.best = d + other.getDistance(v);
+					this.meeting = v;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Expand the best route found by the last query into the map's paths
+	 * @param ch hierarchy that was searched
+	 * @return list of paths in travelling order
+	 */
+	private DS_GenericList<DS_Path> unpack(GS_ContractionHierarchy ch)
+	{
+		// Collect the forward edges from the meeting house back to the start, then reverse them
+		int count = 0;
+		for(int v = this.meeting; this.forward.getPredecessor(v) != -1; v = ch.from(this.forward.getPredecessor(v)))
+			count++;
+		int[] edges = new int[count];
+		for(int v = this.meeting; this.forward.getPredecessor(v) != -1; v = ch.from(this.forward.getPredecessor(v)))
+			edges[--count] = this.forward.getPredecessor(v);
+
+		DS_GenericList<DS_Path> route = new DS_GenericList<DS_Path>();
+		for(int e : edges)
+			ch.unpack(e, route);
+		for(int v = this.meeting; this.backward.getPredecessor(v) != -1; v = ch.to(this.backward.getPredecessor(v)))
+			ch.unpack(this.backward.getPredecessor(v), route);
+		return route;
+	}
+
+}
@@ -0,0 +1,158 @@
+package graphsearch;
+
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import datastructures.DS_House;
+import datastructures.DS_Path;
+import errors.EX_Exception;
+import errors.EX_Exception.ErrorType;
+import filesystem.PA_FileSystem;
+
+public class GS_ContentionCheck
+{
+
+	// Default number of threads querying the service at the same time
+	public static final int DEFAULT_THREADS = 8;
+
+	// Default number of random queries answered by every thread
+	public static final int DEFAULT_QUERIES = 1000;
+
+	// Service under test
+	private final GS_RoutingService service;
+
+	/**
+	 * Contention check class constructor
+	 * @param service to check
+	 */
+	public GS_ContentionCheck(GS_RoutingService service)
+	{
+		this.service = service;
+	}
+
+	/**
+	 * Answer the same random queries from many threads at once and check every route
+	 * against the answers of a single threaded search computed beforehand
+	 * @param threads number of threads querying the service at the same time
+	 * @param queries number of random start and end house pairs (every thread answers all of them)
+	 * @param seed of the random pairs
+	 * @return the number of routes checked
+	 * @throws EX_Exception if a route is not a shortest route between its houses
+	 */
+	public int run(final int threads, final int queries, long seed) throws EX_Exception
+	{
+		PA_FileSystem fs = this.service.getFileSystem();
+		DS_House[] houses = fs.getHouseList().toArray(DS_House.class);
+		if(houses.length == 0 || queries <= 0) return 0;
+
+		// Reference answers, computed one at a time before any thread starts
+		final int[] starts = new int[queries], ends = new int[queries], expected = new int[queries];
+		Random random = new Random(seed);
+		GS_Dijkstra reference = new GS_Dijkstra(fs, null);
+		for(int q = 0; q < queries; q++) {
+			DS_House start = houses[random.nextInt(houses.length)];
+			DS_House end = houses[random.nextInt(houses.length)];
+			starts[q] = start.getID();
+			ends[q] = end.getID();
+			try {
+				expected[q] = reference.search(start, end).getDistance();
+			} catch(EX_Exception exception) {
+				if(!exception.isIDBased() || exception.getID() != 1) throw exception;
+				expected[q] = -1;
+			}
+		}
+
+		// The threads wait for each other, then walk the queries from different offsets so every search overlaps others
+		final CountDownLatch ready = new CountDownLatch(threads);
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			Future<?>[] futures = new Future<?>[threads];
+			for(int t = 0; t < threads; t++) {
+				final int offset = (int)((long)t * queries / threads);
+				futures[t] = executor.submit(new Callable<Void>() {
+					public Void call() throws Exception
+					{
+						ready.countDown();
+						ready.await();
+						for(int k = 0; k < queries; k++) {
+							int q = (offset + k) % queries;
+							GS_ContentionCheck.this.check(starts[q], ends[q], expected[q]);
+						}
+						return null;
+					}
+				});
+			}
+			for(Future<?> future : futures)
+				future.get();
+		} catch(ExecutionException exception) {
+			if(exception.getCause() instanceof EX_Exception)
+				throw (EX_Exception)exception.getCause();
+			throw new EX_Exception(exception.getCause().getMessage(), ErrorType.ERROR_GRAPHSEARCHING);
+		} catch(InterruptedException exception) {
+			Thread.currentThread().interrupt();
+			throw new EX_Exception("Contention check interrupted", ErrorType.ERROR_GRAPHSEARCHING);
+		} finally {
+			executor.shutdownNow();
+		}
+		return threads * queries;
+	}
+
+	/**
+	 * Ask the service for a route and check it is a chain of paths from the start house to the end house
+	 * with the reference length
+	 * @param startId ID of the start house
+	 * @param endId ID of the end house
+	 * @param expected length of the shortest route (-1 if the end house is unreachable)
+	 * @throws EX_Exception if the route is wrong
+	 */
+	private void check(int startId, int endId, int expected) throws EX_Exception
+	{
+		GS_Route route;
+		try {
+			route = this.service.route(startId, endId);
+		} catch(EX_Exception exception) {
+			if(exception.isIDBased() && exception.getID() == 1 && expected == -1)
+				return;
+			throw exception;
+		}
+
+		int length = 0, at = startId;
+		for(int i = 0; i < route.size(); i++) {
+			DS_Path path = route.getPath(i);
+			if(path.getStart().getID() != at) break;
+			length += path.getWeight();
+			at = path.getEnd().getID();
+		}
+		if(route.getStart().getID() != startId || route.getEnd().getID() != endId || at != endId
+				|| length != route.getDistance() || route.getDistance() != expected)
+			throw new EX_Exception("Wrong route from house " + startId + " to house " + endId + " under contention: length "
+					+ route.getDistance() + " instead of " + expected, ErrorType.ERROR_GRAPHSEARCHING);
+	}
+
+	/**
+	 * Check the routing service on a map chosen by the user and print the number of routes checked
+	 * @param args optional number of threads, then optional number of queries per thread
+	 */
+	public static void main(String[] args)
+	{
+		try {
+			int threads = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_THREADS;
+			int queries = (args.length > 1) ? Integer.parseInt(args[1]) : DEFAULT_QUERIES;
+
+			PA_FileSystem fs = new PA_FileSystem(false);
+			GS_ContentionCheck check = new GS_ContentionCheck(new GS_RoutingService(fs));
+			long begin = System.nanoTime();
+			int routes = check.run(threads, queries, 1);
+			System.out.println(routes + " routes checked on " + threads + " threads in "
+					+ ((System.nanoTime() - begin) / 1000000) + " ms, all correct");
+		} catch(EX_Exception exception) {
+			System.err.println(exception.getErrorTypeAsString() + ": " + exception.getMessage());
+		}
+	}
+
+}
@@ -0,0 +1,416 @@
+package graphsearch;
+
+import datastructures.DS_GenericList;
+import datastructures.DS_House;
+import datastructures.DS_IndexedHeap;
+import datastructures.DS_Path;
+import filesystem.PA_FileSystem;
+
+public class GS_ContractionHierarchy
+{
+
+	// Maximum number of houses a witness search may settle before giving up (adds a shortcut)
+	private static final int WITNESS_LIMIT = 500;
+
+	// Number of house IDs covered by the hierarchy
+	private int capacity;
+
+	// Map revision the hierarchy was built for
+	private int revision;
+
+	// Edge data (original paths and shortcuts): end points, weights and the two halves of a shortcut
+	private int[] edgeFrom, edgeTo, edgeWeight, edgeFirst, edgeSecond;
+
+	// Original path of an edge (null for shortcuts)
+	private DS_Path[] edgePath;
+
+	// Number of edges created so far
+	private int edges;
+
+	// Outgoing and incoming edges of every house during the contraction
+	private int[][] outEdges, inEdges;
+	private int[] outCount, inCount;
+
+	// Contraction status and number of contracted neighbours of every house
+	private boolean[] contracted;
+	private int[] contractedNeighbours;
+
+	// Position of every house in the contraction order (higher means more important)
+	private int[] rank;
+
+	// Upward edges leaving every house, and upward edges entering every house (compact arrays)
+	private int[] upOffsets, upEdges, downOffsets, downEdges;
+
+	// Witness search data (distances are valid when the stamp matches the current generation)
+	private DS_IndexedHeap<Object> witnessQueue;
+	private int[] witnessDistance, witnessStamp;
+	private int witnessGeneration;
+
+	/**
+	 * Contraction hierarchy constructor (contracts every house of the map right away)
+	 * @param fs containing the houses and paths to preprocess
+	 */
+	public GS_ContractionHierarchy(PA_FileSystem fs)
+	{
+		this.revision = fs.getRevision();
+		this.capacity = fs.getNumHouses();
+		this.initialise(fs);
+		this.contract(fs);
+		this.buildUpwardGraph();
+
+		// Only the upward graph is needed by the queries
+		this.outEdges = null;
+		this.inEdges = null;
+		this.witnessQueue = null;
+		this.witnessDistance = null;
+		this.witnessStamp = null;
+	}
+
+	/**
+	 * Get the map revision this hierarchy was built for
+	 * @return the revision number
+	 */
+	public int getRevision()
+	{
+		return this.revision;
+	}
+
+	/**
+	 * Get the number of house IDs covered by the hierarchy
+	 * @return the number of house IDs
+	 */
+	public int getCapacity()
+	{
+		return this.capacity;
+	}
+
+	/**
+	 * Get the number of shortcuts added by the preprocessing
+	 * @return the number of shortcut edges
+	 */
+	public int getShortcutCount()
+	{
+		int shortcuts = 0;
+		for(int e = 0; e < this.edges; e++)
+			if(this.edgePath[e] == null) shortcuts++;
+		return shortcuts;
+	}
+
+	/**
+	 * Copy the map's paths into the contraction edge lists
+	 * @param fs containing the houses and paths
+	 */
+	private void initialise(PA_FileSystem fs)
+	{
+		int n = this.capacity;
+		int m = fs.getPathList().size();
+		this.edgeFrom = new int[Math.max(16, 2 * m)];
+		this.edgeTo = new int[this.edgeFrom.length];
+		this.edgeWeight = new int[this.edgeFrom.length];
+		this.edgeFirst = new int[this.edgeFrom.length];
+		this.edgeSecond = new int[this.edgeFrom.length];
+		this.edgePath = new DS_Path[this.edgeFrom.length];
+		this.edges = 0;
+
+		this.outEdges = new int[n][];
+		this.inEdges = new int[n][];
+		this.outCount = new int[n];
+		this.inCount = new int[n];
+		this.contracted = new boolean[n];
+		this.contractedNeighbours = new int[n];
+		this.rank = new int[n];
+
+		this.witnessQueue = new DS_IndexedHeap<Object>(n);
+		this.witnessDistance = new int[n];
+		this.witnessStamp = new int[n];
+		this.witnessGeneration = 0;
+
+		for(DS_Path path : fs.getPathList())
+			this.addEdge(path.getStart().getID(), path.getEnd().getID(), path.getWeight(), -1, -1, path);
+	}
+
+	/**
+	 * Add an edge (original path or shortcut) to the contraction edge lists
+	 * @param from house ID
+	 * @param to house ID
+	 * @param weight of the edge
+	 * @param first half of the shortcut (-1 for an original path)
+	 * @param second half of the shortcut (-1 for an original path)
+	 * @param path original path object (null for a shortcut)
+	 */
+	private void addEdge(int from, int to, int weight, int first, int second, DS_Path path)
+	{
+		if(this.edges == this.edgeFrom.length) {
+			int length = this.edges * 2;
+			this.edgeFrom = this.grow(this.edgeFrom, length);
+			this.edgeTo = this.grow(this.edgeTo, length);
+			this.edgeWeight = this.grow(this.edgeWeight, length);
+			this.edgeFirst = this.grow(this.edgeFirst, length);
+			this.edgeSecond = this.grow(this.edgeSecond, length);
+			DS_Path[] paths = new DS_Path[length];
+			System.arraycopy(this.edgePath, 0, paths, 0, this.edges);
+			this.edgePath = paths;
+		}
+
+		int e = this.edges++;
+		this.edgeFrom[e] = from;
+		this.edgeTo[e] = to;
+		this.edgeWeight[e] = weight;
+		this.edgeFirst[e] = first;
+		this.edgeSecond[e] = second;
+		this.edgePath[e] = path;
+
+		if(this.outEdges[from] == null || this.outCount[from] == this.outEdges[from].length)
+			this.outEdges[from] = this.grow(this.outEdges[from], Math.max(4, this.outCount[from] * 2));
+		this.outEdges[from][this.outCount[from]++] = e;
+		if(this.inEdges[to] == null || this.inCount[to] == this.inEdges[to].length)
+			this.inEdges[to] = this.grow(this.inEdges[to], Math.max(4, this.inCount[to] * 2));
+		this.inEdges[to][this.inCount[to]++] = e;
+	}
+
+	/**
+	 * Copy an integer array into a larger one
+	 * @param array to copy (may be null)
+	 * @param length of the new array
+	 * @return the new array
+	 */
+	private int[] grow(int[] array, int length)
+	{
+		int[] result = new int[length];
+		if(array != null) System.arraycopy(array, 0, result, 0, Math.min(array.length, length));
+		return result;
+	}
+
+	/**
+	 * Contract every house in order of importance (lazy updates of the edge difference)
+	 * @param fs containing the houses
+	 */
+	private void contract(PA_FileSystem fs)
+	{
+		DS_IndexedHeap<Object> order = new DS_IndexedHeap<Object>(this.capacity);
+		for(DS_House house : fs.getHouseList())
+			order.update(house.getID(), null, this.priority(house.getID()));
+
+		int position = 0;
+		while(!order.isEmpty()) {
+			int v = order.pollID();
+			int priority = this.priority(v);
+			if(!order.isEmpty() && priority > order.peekKey()) {
+				order.update(v, null, priority);
+				continue;
+			}
+			this.contractHouse(v, false);
+			this.contracted[v] = true;
+			this.rank[v] = position++;
+			for(int i = 0; i < this.outCount[v]; i++)
+				this.contractedNeighbours[this.edgeTo[this.outEdges[v][i]]]++;
+			for(int i = 0; i < this.inCount[v]; i++)
+				this.contractedNeighbours[this.edgeFrom[this.inEdges[v][i]]]++;
+		}
+	}
+
+	/**
+	 * Get the contraction priority of a house (edge difference plus contracted neighbours)
+	 * @param v house ID
+	 * @return the priority, lower means contract sooner
+	 */
+	private int priority(int v)
+	{
+		int removed = 0;
+		for(int i = 0; i < this.outCount[v]; i++)
+			if(!this.contracted[this.edgeTo[this.outEdges[v][i]]]) removed++;
+		for(int i = 0; i < this.inCount[v]; i++)
+			if(!this.contracted[this.edgeFrom[this.inEdges[v][i]]]) removed++;
+		return this.contractHouse(v, true) - removed + this.contractedNeighbours[v];
+	}
+
+	/**
+	 * Add the shortcuts needed to remove a house from the remaining graph
+	 * @param v house ID to contract
+	 * @param simulate only counts the shortcuts without adding them
+	 * @return the number of shortcuts (that would be) added
+	 */
+	private int contractHouse(int v, boolean simulate)
+	{
+		int shortcuts = 0;
+		int inTotal = this.inCount[v];
+		int outTotal = this.outCount[v];
+		for(int i = 0; i < inTotal; i++) {
+			int in = this.inEdges[v][i];
+			int u = this.edgeFrom[in];
+			if(this.contracted[u] || u == v) continue;
+
+			int limit = 0;
+			for(int j = 0; j < outTotal; j++) {
+				int out = this.outEdges[v][j];
+				int w = this.edgeTo[out];
+				if(!this.contracted[w] && w != u)
+					limit = Math.max(limit, this.edgeWeight[in] + this.edgeWeight[out]);
+			}
+			if(limit == 0) continue;
+
+			this.witnessSearch(u, v, limit);
+			for(int j = 0; j < outTotal; j++) {
+				int out = this.outEdges[v][j];
+				int w = this.edgeTo[out];
+				if(this.contracted[w] || w == u) continue;
+				int via = this.edgeWeight[in] + this.edgeWeight[out];
+				if(this.witnessStamp[w] == this.witnessGeneration && this.witnessDistance[w] <= via) continue;
+				shortcuts++;
+				if(!simulate) this.addEdge(u, w, via, in, out, null);
+			}
+		}
+		return shortcuts;
+	}
+
+	/**
+	 * Limited Dijkstra search looking for routes that avoid the house being contracted
+	 * @param source house ID to search from
+	 * @param ignore house ID being contracted
+	 * @param limit distance past which the search stops
+	 */
+	private void witnessSearch(int source, int ignore, int limit)
+	{
+		this.witnessGeneration++;
+		this.witnessQueue.clear();
+		this.witnessDistance[source] = 0;
+		this.witnessStamp[source] = this.witnessGeneration;
+		this.witnessQueue.update(source, null, 0);
+
+		int settled = 0;
+		while(!this.witnessQueue.isEmpty() && settled++ < WITNESS_LIMIT) {
+			if(this.witnessQueue.peekKey() > limit) break;
+			int u = this.witnessQueue.pollID();
+			for(int i = 0; i < this.outCount[u]; i++) {
+				int e = this.outEdges[u][i];
+				int w = this.edgeTo[e];
+				if(w == ignore || this.contracted[w]) continue;
+				int distance = this.witnessDistance[u] + this.edgeWeight[e];
+				if(this.witnessStamp[w] != this.witnessGeneration || distance < this.witnessDistance[w]) {
+					this.witnessDistance[w] = distance;
+					this.witnessStamp[w] = this.witnessGeneration;
+					this.witnessQueue.update(w, null, distance);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Split the edges into the compact upward (forward search) and downward (backward search) graphs
+	 */
+	private void buildUpwardGraph()
+	{
+		int n = this.capacity;
+		this.upOffsets = new int[n + 1];
+		this.downOffsets = new int[n + 1];
+		for(int e = 0; e < this.edges; e++) {
+			if(this.rank[this.edgeFrom[e]] < this.rank[this.edgeTo[e]])
+				this.upOffsets[this.edgeFrom[e] + 1]++;
+			else
+				this.downOffsets[this.edgeTo[e] + 1]++;
+		}
+		for(int v = 0; v < n; v++) {
+			this.upOffsets[v + 1] += this.upOffsets[v];
+			this.downOffsets[v + 1] += this.downOffsets[v];
+		}
+
+		this.upEdges = new int[this.upOffsets[n]];
+		this.downEdges = new int[this.downOffsets[n]];
+		int[] upFill = new int[n];
+		int[] downFill = new int[n];
+		for(int e = 0; e < this.edges; e++) {
+			int from = this.edgeFrom[e], to = this.edgeTo[e];
+			if(this.rank[from] < this.rank[to])
+				this.upEdges[this.upOffsets[from] + upFill[from]++] = e;
+			else
+				this.downEdges[this.downOffsets[to] + downFill[to]++] = e;
+		}
+	}
+
+	/**
+	 * Get the upward edges leaving a house (first index)
+	 * @param v house ID
+	 * @return index of the first upward edge in the upward edge array
+	 */
+	int upBegin(int v) { return this.upOffsets[v]; }
+
+	/**
+	 * Get the upward edges leaving a house (last index, exclusive)
+	 * @param v house ID
+	 * @return index after the last upward edge in the upward edge array
+	 */
+	int upEnd(int v) { return this.upOffsets[v + 1]; }
+
+	/**
+	 * Get the upward edges entering a house (first index)
+	 * @param v house ID
+	 * @return index of the first downward edge in the downward edge array
+	 */
+	int downBegin(int v) { return this.downOffsets[v]; }
+
+	/**
+	 * Get the upward edges entering a house (last index, exclusive)
+	 * @param v house ID
+	 * @return index after the last downward edge in the downward edge array
+	 */
+	int downEnd(int v) { return this.downOffsets[v + 1]; }
+
+	/**
+	 * Get an edge index from the upward edge array
+	 * @param i position in the array
+	 * @return edge index
+	 */
+	int upEdge(int i) { return this.upEdges[i]; }
+
+	/**
+	 * Get an edge index from the downward edge array
+	 * @param i position in the array
+	 * @return edge index
+	 */
+	int downEdge(int i) { return this.downEdges[i]; }
+
+	/**
+	 * Get the starting house ID of an edge
+	 * @param e edge index
+	 * @return house ID
+	 */
+	int from(int e) { return this.edgeFrom[e]; }
+
+	/**
+	 * Get the ending house ID of an edge
+	 * @param e edge index
+	 * @return house ID
+	 */
+	int to(int e) { return this.edgeTo[e]; }
+
+	/**
+	 * Get the weight of an edge
+	 * @param e edge index
+	 * @return the weight
+	 */
+	int weight(int e) { return this.edgeWeight[e]; }
+
+	/**
+	 * Expand an edge (through any nested shortcuts) into the chain of original paths
+	 * @param e edge index to expand
+	 * @param route list receiving the paths in travelling order
+	 */
+	void unpack(int e, DS_GenericList<DS_Path> route)
+	{
+		int[] stack = new int[16];
+		int top = 0;
+		stack[top++] = e;
+		while(top > 0) {
+			int edge = stack[--top];
+			if(this.edgePath[edge] != null) {
+				route.add(this.edgePath[edge]);
+			} else {
+				if(top + 2 > stack.length) stack = this.grow(stack, stack.length * 2);
+				// Push the second half first so the first half is expanded first
+				stack[top++] = this.edgeSecond[edge];
+				stack[top++] = this.edgeFirst[edge];
+			}
+		}
+	}
+
+}
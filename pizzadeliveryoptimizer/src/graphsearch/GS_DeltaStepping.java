@@ -0,0 +1,306 @@
+package graphsearch;
+
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import datastructures.DS_House;
+import errors.EX_Exception;
+import errors.EX_Exception.ErrorType;
+import filesystem.PA_FileSystem;
+
+public class GS_DeltaStepping
+{
+
+	// Bucket width that asks for the average path weight to be used
+	public static final int AUTOMATIC_DELTA = 0;
+
+	// Frontiers smaller than this are relaxed by the calling thread alone
+	private static final int PARALLEL_THRESHOLD = 256;
+
+	// Distance of the houses that have not been reached yet
+	private static final int UNREACHED = Integer.MAX_VALUE;
+
+	/**
+	 * Growable list of house IDs
+	 */
+	private static final class IDList
+	{
+		// IDs in the list
+		int[] data = new int[16];
+
+		// Number of IDs in use
+		int size;
+
+		/**
+		 * Add an ID at the end of the list
+		 * @param id to add
+		 */
+		void add(int id)
+		{
+			if(this.size == this.data.length)
+				this.data = Arrays.copyOf(this.data, this.size * 2);
+			this.data[this.size++] = id;
+		}
+	}
+
+	// Map to compute the distances on (read only while a computation is running)
+	private final PA_FileSystem filesystem;
+
+	// Width of the distance buckets (AUTOMATIC_DELTA for the average path weight)
+	private final int delta;
+
+	// Number of threads relaxing paths
+	private final int threads;
+
+	// Threads relaxing paths, started by the first computation and kept for the next ones (null until then, or with one thread)
+	private ExecutorService executor;
+
+	// Houses improved by every thread during a relaxation (emptied and reused by every phase)
+	private final IDList[] improved;
+
+	// Snapshot of the map (kept until the map is edited), and the distance of every house of the current computation
+	private GS_Graph graph;
+	private AtomicIntegerArray distance;
+
+	// Number of houses settled during the last computation
+	private int settled;
+
+	/**
+	 * Delta-stepping class constructor (automatic bucket width, one thread per available processor)
+	 * @param fs to use with this object
+	 */
+	public GS_DeltaStepping(PA_FileSystem fs)
+	{
+		this(fs, AUTOMATIC_DELTA, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Delta-stepping class constructor
+	 * @param fs to use with this object
+	 * @param delta width of the distance buckets (AUTOMATIC_DELTA for the average path weight)
+	 * @param threads number of threads relaxing paths
+	 */
+	public GS_DeltaStepping(PA_FileSystem fs, int delta, int threads)
+	{
+		this.filesystem = fs;
+		this.delta = Math.max(AUTOMATIC_DELTA, delta);
+		this.threads = Math.max(1, threads);
+		this.improved = new IDList[this.threads];
+		for(int t = 0; t < this.threads; t++)
+			this.improved[t] = new IDList();
+	}
+
+	/**
+	 * Stop the threads relaxing paths (a later computation starts new ones)
+	 */
+	public void shutdown()
+	{
+		if(this.executor != null) this.executor.shutdownNow();
+		this.executor = null;
+	}
+
+	/**
+	 * Get the number of houses settled during the last computation
+	 * @return the number of settled houses
+	 */
+	public int getSettledCount()
+	{
+		return this.settled;
+	}
+
+	/**
+	 * Compute the distance from a house to every house of the map
+	 * (houses are settled bucket by bucket, the paths of a bucket are relaxed in parallel:
+	 * light paths until the bucket stops changing, then heavy paths once)
+	 * @param source house to measure the distances from
+	 * @return distance of every house, indexed by house ID (-1 if unreachable)
+	 * @throws EX_Exception
+	 */
+	public int[] compute(DS_House source) throws EX_Exception
+	{
+		if(this.graph == null || this.graph.getRevision() != this.filesystem.getRevision())
+			this.graph = GS_Graph.get(this.filesystem);
+		int capacity = this.graph.getHouseCount();
+		int[] weights = this.graph.getWeights();
+		long total = 0;
+		int maxWeight = this.graph.getMaxWeight(), paths = weights.length;
+		for(int weight : weights) {
+			if(weight < 0)
+				throw new EX_Exception("Negative path weights can't be searched", ErrorType.ERROR_GRAPHSEARCHING);
+			total += weight;
+		}
+		int delta = (this.delta != AUTOMATIC_DELTA) ? this.delta : (int)Math.max(1, (paths == 0) ? 1 : total / paths);
+
+		this.distance = new AtomicIntegerArray(capacity);
+		for(int i = 0; i < capacity; i++)
+			this.distance.set(i, UNREACHED);
+		this.settled = 0;
+
+		// The threads don't keep the application running, so an unused object needs no shutdown
+		if(this.threads > 1 && this.executor == null)
+			this.executor = Executors.newFixedThreadPool(this.threads, new ThreadFactory() {
+				public Thread newThread(Runnable runnable)
+				{
+					Thread thread = new Thread(runnable, "Delta-stepping");
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+		try {
+			this.run(source, delta, maxWeight, this.executor);
+		} catch(ExecutionException exception) {
+			throw new EX_Exception(exception.getCause().getMessage(), ErrorType.ERROR_GRAPHSEARCHING);
+		} catch(InterruptedException exception) {
+			Thread.currentThread().interrupt();
+			this.shutdown();
+			throw new EX_Exception("Delta-stepping interrupted", ErrorType.ERROR_GRAPHSEARCHING);
+		}
+
+		int[] result = new int[capacity];
+		for(int i = 0; i < capacity; i++) {
+			int d = this.distance.get(i);
+			result[i] = (d == UNREACHED) ? -1 : d;
+		}
+		this.distance = null;
+		return result;
+	}
+
+	/**
+	 * Delta-stepping procedure
+	 * @param source house to measure the distances from
+	 * @param delta width of the buckets
+	 * @param maxWeight heaviest path weight of the map
+	 * @param executor to relax the paths on (null to relax them in the calling thread)
+	 * @throws InterruptedException
+	 * @throws ExecutionException
+	 */
+	private void run(DS_House source, int delta, int maxWeight, ExecutorService executor) throws InterruptedException, ExecutionException
+	{
+		int capacity = this.graph.getHouseCount();
+		// Pending distances never exceed the current bucket by more than the heaviest weight, so the buckets can be circular
+		IDList[] buckets = new IDList[maxWeight / delta + 2];
+		for(int b = 0; b < buckets.length; b++)
+			buckets[b] = new IDList();
+		int[] phase = new int[capacity], done = new int[capacity];
+		int phaseCount = 0;
+
+		// The settled and frontier lists are emptied and reused by every bucket and phase
+		IDList removed = new IDList(), frontier = new IDList();
+		this.distance.set(source.getID(), 0);
+		buckets[0].add(source.getID());
+		for(int current = 0, empty = 0; empty < buckets.length; current++) {
+			IDList bucket = buckets[current % buckets.length];
+			if(bucket.size == 0) {
+				empty++;
+				continue;
+			}
+			empty = 0;
+
+			// Relax the light paths until no house falls back into this bucket
+			removed.size = 0;
+			while(bucket.size > 0) {
+				phaseCount++;
+				frontier.size = 0;
+				for(int k = 0; k < bucket.size; k++) {
+					int id = bucket.data[k];
+					// Skip the entries left behind by a house that got closer since, and duplicates
+					if(this.distance.get(id) / delta != current || phase[id] == phaseCount) continue;
+					phase[id] = phaseCount;
+					frontier.add(id);
+					if(done[id] != current + 1) {
+						done[id] = current + 1;
+						removed.add(id);
+					}
+				}
+				bucket.size = 0;
+				this.relax(frontier, delta, true, buckets, executor);
+			}
+
+			// Houses of this bucket are settled, their heavy paths can only reach later buckets
+			this.settled += removed.size;
+			this.relax(removed, delta, false, buckets, executor);
+		}
+	}
+
+	/**
+	 * Relax the light or the heavy paths leaving a set of houses and queue the houses that got closer
+	 * @param frontier IDs of the houses whose paths are relaxed
+	 * @param delta width of the buckets
+	 * @param light true for the paths no heavier than delta, false for the others
+	 * @param buckets circular buckets to queue the improved houses in
+	 * @param executor to relax the paths on (null to relax them in the calling thread)
+	 * @throws InterruptedException
+	 * @throws ExecutionException
+	 */
+	private void relax(final IDList frontier, final int delta, final boolean light, IDList[] buckets, ExecutorService executor)
+			throws InterruptedException, ExecutionException
+	{
+		int workers = 1;
+		this.improved[0].size = 0;
+		if(executor == null || frontier.size < PARALLEL_THRESHOLD) {
+			this.relax(frontier, 0, frontier.size, delta, light, this.improved[0]);
+		} else {
+			workers = this.threads;
+			int chunk = (frontier.size + workers - 1) / workers;
+			Future<?>[] futures = new Future<?>[workers];
+			for(int t = 0; t < workers; t++) {
+				final int begin = Math.min(frontier.size, t * chunk), end = Math.min(frontier.size, begin + chunk);
+				final IDList improved = this.improved[t];
+				improved.size = 0;
+				futures[t] = executor.submit(new Callable<Void>() {
+					public Void call()
+					{
+						GS_DeltaStepping.this.relax(frontier, begin, end, delta, light, improved);
+						return null;
+					}
+				});
+			}
+			for(Future<?> future : futures)
+				future.get();
+		}
+
+		for(int t = 0; t < workers; t++) {
+			IDList list = this.improved[t];
+			for(int k = 0; k < list.size; k++) {
+				int id = list.data[k];
+				buckets[(this.distance.get(id) / delta) % buckets.length].add(id);
+			}
+		}
+	}
+
+	/**
+	 * Relax the light or the heavy paths leaving part of a set of houses (safe to run on several threads at once)
+	 * @param frontier IDs of the houses whose paths are relaxed
+	 * @param begin first index of the part
+	 * @param end index after the last one of the part
+	 * @param delta width of the buckets
+	 * @param light true for the paths no heavier than delta, false for the others
+	 * @param improved list to add the IDs of the houses that got closer to (owned by the calling thread)
+	 */
+	private void relax(IDList frontier, int begin, int end, int delta, boolean light, IDList improved)
+	{
+		int[] offsets = this.graph.getOffsets(), targets = this.graph.getTargets(), weights = this.graph.getWeights();
+		for(int k = begin; k < end; k++) {
+			int id = frontier.data[k];
+			int d = this.distance.get(id);
+			for(int e = offsets[id]; e < offsets[id + 1]; e++) {
+				if((weights[e] <= delta) != light) continue;
+				int next = targets[e], candidate = d + weights[e];
+				// Lower the distance atomically, another thread may be lowering it at the same time
+				for(int old = this.distance.get(next); candidate < old; old = this.distance.get(next)) {
+					if(this.distance.compareAndSet(next, old, candidate)) {
+						improved.add(next);
+						break;
+					}
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,324 @@
+package graphsearch;
+
+import java.util.Arrays;
+
+import datastructures.DS_GenericList;
+import datastructures.DS_House;
+import datastructures.DS_IndexedHeap;
+import datastructures.DS_Path;
+import errors.EX_Exception;
+import errors.EX_Exception.ErrorType;
+import filesystem.FS_Listener;
+import filesystem.PA_FileSystem;
+
+public class GS_DepotAssignment implements FS_Listener
+{
+
+	// Map whose houses are assigned to depots
+	private final PA_FileSystem filesystem;
+
+	// Whether the labels still match the map (depot changes are repaired, other edits force a new computation)
+	private boolean valid;
+
+	// Nearest depot of every house, indexed by house ID (null if no depot reaches it)
+	private DS_House[] depot;
+
+	// Distance from the nearest depot to every house, indexed by house ID (-1 if unreachable)
+	private int[] distance;
+
+	// Last path of the route from the nearest depot to every house, indexed by house ID (null for depots and unreachable houses)
+	private DS_Path[] parent;
+
+	// Priority queue used to label and repair the houses
+	private DS_IndexedHeap<DS_House> queue;
+
+	// Houses cut off from the removed depot by the current repair (stamp equal to the current generation)
+	private int[] affected;
+	private int generation;
+
+	// Number of houses settled by the last computation or repair
+	private int settled;
+
+	/**
+	 * Depot assignment class constructor (the houses are labelled on the first query)
+	 * @param fs to use with this object
+	 */
+	public GS_DepotAssignment(PA_FileSystem fs)
+	{
+		this.filesystem = fs;
+		this.valid = false;
+		this.depot = new DS_House[0];
+		this.distance = new int[0];
+		this.parent = new DS_Path[0];
+		this.affected = new int[0];
+		this.generation = 0;
+		this.queue = new DS_IndexedHeap<DS_House>(fs.getNumHouses());
+		fs.addListener(this);
+	}
+
+	/**
+	 * Get the depot nearest to a house
+	 * @param house to look up
+	 * @return the depot (null if no depot reaches the house)
+	 * @throws EX_Exception
+	 */
+	public DS_House getDepot(DS_House house) throws EX_Exception
+	{
+		this.update();
+		return (house.getID() < this.depot.length) ? this.depot[house.getID()] : null;
+	}
+
+	/**
+	 * Get the distance from the nearest depot to a house
+	 * @param house to look up
+	 * @return the distance (-1 if no depot reaches the house)
+	 * @throws EX_Exception
+	 */
+	public int getDistance(DS_House house) throws EX_Exception
+	{
+		this.update();
+		return (house.getID() < this.distance.length) ? this.distance[house.getID()] : -1;
+	}
+
+	/**
+	 * Get the shortest route from the nearest depot to a house
+	 * @param house to deliver to
+	 * @return the route
+	 * @throws EX_Exception if no depot reaches the house
+	 */
+	public GS_Route getRoute(DS_House house) throws EX_Exception
+	{
+		DS_House start = this.getDepot(house);
+		if(start == null)
+			throw new EX_Exception(1, ErrorType.ERROR_GRAPHSEARCHING);
+
+		DS_Path[] route = new DS_Path[16];
+		int length = 0;
+		for(DS_Path path = this.parent[house.getID()]; path != null; path = this.parent[path.getStart().getID()]) {
+			if(length == route.length) route = Arrays.copyOf(route, length * 2);
+			route[length++] = path;
+		}
+		DS_Path[] paths = new DS_Path[length];
+		for(int i = 0; i < length; i++)
+			paths[i] = route[length - 1 - i];
+		return new GS_Route(start, house, paths, this.settled);
+	}
+
+	/**
+	 * Get the houses served by a depot (those it is the nearest depot of)
+	 * @param depot house
+	 * @return a new list with the houses, the depot included
+	 * @throws EX_Exception
+	 */
+	public DS_GenericList<DS_House> getHouses(DS_House depot) throws EX_Exception
+	{
+		this.update();
+		DS_GenericList<DS_House> result = new DS_GenericList<DS_House>();
+		for(DS_House house : this.filesystem.getHouseList())
+			if(house.getID() < this.depot.length && this.depot[house.getID()] == depot)
+				result.add(house);
+		return result;
+	}
+
+	/**
+	 * Get the number of houses settled by the last computation or repair
+	 * @return the number of settled houses
+	 */
+	public int getSettledCount()
+	{
+		return this.settled;
+	}
+
+	/**
+	 * Label every house again if the map was edited since the labels were computed
+	 * (a single Dijkstra search started from every depot at once)
+	 * @throws EX_Exception
+	 */
+	private void update() throws EX_Exception
+	{
+		if(this.valid) return;
+		try {
+			this.ensureCapacity();
+			Arrays.fill(this.depot, null);
+			Arrays.fill(this.distance, -1);
+			Arrays.fill(this.parent, null);
+			this.queue.clear();
+			this.settled = 0;
+			for(DS_House house : this.filesystem.getDepots()) {
+				this.depot[house.getID()] = house;
+				this.distance[house.getID()] = 0;
+				this.queue.update(house.getID(), house, 0);
+			}
+			this.propagate();
+			this.valid = true;
+		} catch(Exception exception) {
+			throw new EX_Exception(exception.getMessage(), ErrorType.ERROR_GRAPHSEARCHING);
+		}
+	}
+
+	/**
+	 * Make sure the per house arrays can hold every house ID (new entries are unreachable)
+	 */
+	private void ensureCapacity()
+	{
+		int n = this.filesystem.getNumHouses();
+		this.queue.ensureCapacity(n);
+		if(this.distance.length >= n) return;
+		int length = this.distance.length;
+		this.depot = Arrays.copyOf(this.depot, n);
+		this.distance = Arrays.copyOf(this.distance, n);
+		this.parent = Arrays.copyOf(this.parent, n);
+		this.affected = Arrays.copyOf(this.affected, n);
+		Arrays.fill(this.distance, length, n, -1);
+	}
+
+	/**
+	 * Settle the queued houses and hand their depot on through their outgoing paths (Dijkstra)
+	 * (a house only changes depot if the new one is strictly closer)
+	 */
+	private void propagate()
+	{
+		while(!this.queue.isEmpty()) {
+			DS_House current = this.queue.poll();
+			int id = current.getID(), d = this.distance[id];
+			this.settled++;
+			for(DS_Path path : current.getPaths()) {
+				int next = path.getEnd().getID();
+				if(this.distance[next] == -1 || d + path.getWeight() < this.distance[next]) {
+					this.distance[next] = d + path.getWeight();
+					this.depot[next] = this.depot[id];
+					this.parent[next] = path;
+					this.queue.update(next, path.getEnd(), this.distance[next]);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Let a new depot take over the houses it is strictly closer to (the other houses are not touched)
+	 * @param house that became a depot
+	 */
+	public void depotAdded(DS_House house)
+	{
+		if(this.valid == false) return;
+		int id = house.getID();
+		if(this.depot[id] == house) return;
+		this.settled = 0;
+		this.depot[id] = house;
+		this.distance[id] = 0;
+		this.parent[id] = null;
+		this.queue.clear();
+		this.queue.update(id, house, 0);
+		this.propagate();
+	}
+
+	/**
+	 * Hand the houses of a removed depot over to the other depots
+	 * (the houses of the other depots keep their labels, their routes never go through the removed depot's houses)
+	 * @param house that was a depot
+	 */
+	public void depotRemoved(DS_House house)
+	{
+		if(this.valid == false || this.depot[house.getID()] != house) return;
+
+		// Collect the houses served by the depot by following its routes outwards
+		this.generation++;
+		this.settled = 0;
+		DS_GenericList<DS_House> served = new DS_GenericList<DS_House>();
+		DS_House[] stack = new DS_House[16];
+		int top = 0;
+		stack[top++] = house;
+		this.affected[house.getID()] = this.generation;
+		while(top > 0) {
+			DS_House current = stack[--top];
+			served.add(current);
+			for(DS_Path child : current.getPaths()) {
+				int c = child.getEnd().getID();
+				if(this.parent[c] != child || this.affected[c] == this.generation) continue;
+				this.affected[c] = this.generation;
+				if(top == stack.length) stack = Arrays.copyOf(stack, top * 2);
+				stack[top++] = child.getEnd();
+			}
+		}
+		for(DS_House current : served) {
+			this.depot[current.getID()] = null;
+			this.distance[current.getID()] = -1;
+			this.parent[current.getID()] = null;
+		}
+
+		// Seed every orphaned house with its best path from a house another depot still serves
+		this.queue.clear();
+		for(DS_House current : served) {
+			int id = current.getID();
+			for(DS_Path in : current.getIncomingPaths()) {
+				int u = in.getStart().getID();
+				if(this.affected[u] == this.generation || this.distance[u] == -1) continue;
+				int d = this.distance[u] + in.getWeight();
+				if(this.distance[id] == -1 || d < this.distance[id]) {
+					this.distance[id] = d;
+					this.depot[id] = this.depot[u];
+					this.parent[id] = in;
+				}
+			}
+			if(this.distance[id] != -1)
+				this.queue.update(id, current, this.distance[id]);
+		}
+		this.propagate();
+	}
+
+	/**
+	 * Make room for a new house (no depot reaches it until a path leads to it)
+	 * @param house that was added
+	 */
+	public void houseAdded(DS_House house)
+	{
+		if(this.valid) this.ensureCapacity();
+	}
+
+	/**
+	 * Label the houses again on the next query
+	 * @param house that was removed
+	 */
+	public void houseRemoved(DS_House house)
+	{
+		this.valid = false;
+	}
+
+	/**
+	 * House details do not affect the labels
+	 * @param house that was changed
+	 */
+	public void houseChanged(DS_House house)
+	{
+		//
+	}
+
+	/**
+	 * Label the houses again on the next query
+	 * @param path that was added
+	 */
+	public void pathAdded(DS_Path path)
+	{
+		this.valid = false;
+	}
+
+	/**
+	 * Label the houses again on the next query
+	 * @param path that was removed
+	 */
+	public void pathRemoved(DS_Path path)
+	{
+		this.valid = false;
+	}
+
+	/**
+	 * Label the houses again on the next query
+	 * @param path that was changed
+	 * @param oldWeight of the path before the change
+	 */
+	public void pathWeightChanged(DS_Path path, int oldWeight)
+	{
+		this.valid = false;
+	}
+
+}
@@ -0,0 +1,171 @@
+package graphsearch;
+
+import java.util.Arrays;
+
+import javax.swing.JProgressBar;
+
+import datastructures.DS_House;
+import datastructures.DS_Path;
+import errors.EX_Exception;
+import errors.EX_Exception.ErrorType;
+import filesystem.PA_FileSystem;
+
+public class GS_Dial extends GS_Search
+{
+
+	// Per query search state (its queue is not used, the buckets replace it)
+	private GS_SearchContext context;
+
+	// Circular buckets of queued houses, one per distance modulo the bucket count (first house ID, -1 if empty)
+	private int[] buckets;
+
+	// Next and previous house in the same bucket, indexed by house ID (-1 at the ends)
+	private int[] next, previous;
+
+	// Heaviest path weight of the map (the buckets span one more than this)
+	private int maxWeight;
+
+	// Map revision the heaviest weight was found for (-1 if never computed)
+	private int weightRevision;
+
+	/**
+	 * Dial graph searching class constructor
+	 * @param fs to use with this object
+	 * @param progressbar object to report the progress of current operations
+	 */
+	public GS_Dial(PA_FileSystem fs, JProgressBar progressbar)
+	{
+		super(fs, progressbar);
+		this.context = new GS_SearchContext(fs.getNumHouses());
+		this.buckets = new int[0];
+		this.next = new int[0];
+		this.previous = new int[0];
+		this.weightRevision = -1;
+	}
+
+	/**
+	 * Start the graph searching process and link up the two requested houses
+	 * (Dijkstra with a circular array of buckets instead of a heap, the weights being small integers)
+	 * @param start house
+	 * @param end house
+	 * @return the shortest route
+	 * @throws EX_Exception
+	 */
+	public GS_Route search(DS_House start, DS_House end) throws EX_Exception
+	{
+		this.progressStart();
+		GS_Graph graph = this.getGraph();
+		this.dial(graph, start, end);
+		GS_Route route = this.buildRoute(this.context, graph, start, end);
+		this.progressEnd();
+		return route;
+	}
+
+	/**
+	 * Find the heaviest path weight again if the map was edited since it was last found
+	 * @throws EX_Exception if a path has a negative weight
+	 */
+	private void updateMaxWeight() throws EX_Exception
+	{
+		if(this.weightRevision == this.filesystem.getRevision()) return;
+
+		int max = 0;
+		for(DS_Path path : this.filesystem.getPathList()) {
+			if(path.getWeight() < 0)
+				throw new EX_Exception("Negative path weights can't be searched", ErrorType.ERROR_GRAPHSEARCHING);
+			max = Math.max(max, path.getWeight());
+		}
+		this.maxWeight = max;
+		this.weightRevision = this.filesystem.getRevision();
+	}
+
+	/**
+	 * Dial's graph searching procedure (settles every reachable house exactly once)
+	 * @param graph snapshot of the map to search
+	 * @param start house to search from
+	 * @param end house at which to stop searching (null to settle every reachable house)
+	 * @throws EX_Exception
+	 */
+	private void dial(GS_Graph graph, DS_House start, DS_House end) throws EX_Exception
+	{
+		this.updateMaxWeight();
+		try {
+			GS_SearchContext context = this.context;
+			int[] offsets = graph.getOffsets(), targets = graph.getTargets(), weights = graph.getWeights(), edges = graph.getEdges();
+			int capacity = graph.getHouseCount(), endID = (end == null) ? -1 : end.getID();
+			this.settled = 0;
+			context.reset(capacity);
+			if(this.next.length < capacity) {
+				this.next = new int[capacity];
+				this.previous = new int[capacity];
+			}
+			// Queued distances never span more than the heaviest weight, so they can share the buckets modulo its size
+			if(this.buckets.length != this.maxWeight + 1)
+				this.buckets = new int[this.maxWeight + 1];
+			Arrays.fill(this.buckets, -1);
+
+			context.setDistance(start.getID(), 0, -1);
+			this.push(start.getID(), 0);
+			int size = 1;
+			for(int distance = 0; size > 0; distance++) {
+				int slot = distance % this.buckets.length;
+				while(this.buckets[slot] != -1) {
+					int id = this.buckets[slot];
+					this.pop(id, slot);
+					size--;
+					context.setSettled(id);
+					this.settled++;
+					this.progressStep();
+					if(id == endID) return;
+					for(int e = offsets[id]; e < offsets[id + 1]; e++) {
+						int nid = targets[e];
+						if(context.isSettled(nid)) continue;
+						int d = distance + weights[e];
+						if(!context.isReached(nid)) {
+							size++;
+						} else if(d < context.getDistance(nid)) {
+							this.pop(nid, context.getDistance(nid) % this.buckets.length);
+						} else {
+							continue;
+						}
+						context.setDistance(nid, d, edges[e]);
+						this.push(nid, d);
+					}
+				}
+			}
+		} catch(Exception exception) {
+			throw new EX_Exception(exception.getMessage(), ErrorType.ERROR_GRAPHSEARCHING);
+		}
+	}
+
+	/**
+	 * Queue a house in the bucket of its distance
+	 * @param id of the house to queue
+	 * @param distance of the house
+	 */
+	private void push(int id, int distance)
+	{
+		int slot = distance % this.buckets.length;
+		this.previous[id] = -1;
+		this.next[id] = this.buckets[slot];
+		if(this.buckets[slot] != -1)
+			this.previous[this.buckets[slot]] = id;
+		this.buckets[slot] = id;
+	}
+
+	/**
+	 * Take a house out of its bucket
+	 * @param id of the house
+	 * @param slot bucket the house is in
+	 */
+	private void pop(int id, int slot)
+	{
+		if(this.previous[id] == -1)
+			this.buckets[slot] = this.next[id];
+		else
+			this.next[this.previous[id]] = this.next[id];
+		if(this.next[id] != -1)
+			this.previous[this.next[id]] = this.previous[id];
+	}
+
+}
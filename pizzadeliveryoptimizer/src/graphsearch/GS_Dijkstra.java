@@ -3,19 +3,16 @@ package graphsearch;
 import javax.swing.JProgressBar;
 
 import datastructures.DS_House;
-import datastructures.DS_Path;
+import datastructures.DS_IndexedHeap;
 import errors.EX_Exception;
 import errors.EX_Exception.ErrorType;
 import filesystem.PA_FileSystem;
 
-public class GS_Dijkstra
+public class GS_Dijkstra extends GS_Search
 {
 
-	// Local copy of the file system object to use during the graph searching process
-	private PA_FileSystem filesystem;
-
-	// Local copy of the progress bar to inform the user on the graph searching process
-	private JProgressBar progressbar;
+	// Per query search state (reused between searches)
+	private GS_SearchContext context;
 
 	/**
 	 * Dijkstra graph searching class constructor
@@ -24,74 +21,91 @@ public class GS_Dijkstra
 	 */
     public GS_Dijkstra(PA_FileSystem fs, JProgressBar progressbar)
     {
-    	this.progressbar = progressbar;
-        this.filesystem = fs;
+    	super(fs, progressbar);
+        this.context = new GS_SearchContext(fs.getNumHouses());
     }
 
     /**
-     * Set the progress bar's value to 1 more than it is currently at
+     * Start the graph searching process and link up the two requested houses
+     * (the search stops as soon as the end house is settled)
+     * @param start house
+     * @param end house
+     * @return the shortest route
+     * @throws EX_Exception
      */
-    private void progressStep()
+    public GS_Route search(DS_House start, DS_House end) throws EX_Exception
     {
-    	this.progressbar.setValue(this.progressbar.getValue() + 1);
+    	this.progressStart();
+    	GS_Graph graph = this.getGraph();
+    	this.dijkstra(graph, start, end, null, 0);
+    	GS_Route route = this.buildRoute(this.context, graph, start, end);
+    	this.progressEnd();
+    	return route;
     }
 
     /**
-     * Start the graph searching process and link up the two requested houses
+     * Search from one house towards many houses at once
+     * (the search stops as soon as every target house is settled, see getDistance)
      * @param start house
-     * @param end house
+     * @param targets flags of the target houses, indexed by house ID
+     * @param count number of houses flagged in targets
      * @throws EX_Exception
      */
-    public void search(DS_House start, DS_House end) throws EX_Exception
+    public void searchMany(DS_House start, boolean[] targets, int count) throws EX_Exception
     {
-    	this.progressbar.setMaximum(this.filesystem.getNumHouses());
-    	this.progressbar.setValue(0);
-
-    	this.clear();
-    	start.setDistance(0);
-    	this.dijkstra(start);
-
-    	if(end.getShortest() == null)
-    		throw new EX_Exception(1, ErrorType.ERROR_GRAPHSEARCHING);
-
-    	DS_House house = end;
-		while(house != start) {
-			house.getShortest().setIsShortest(true);
-			house = house.getShortest().getStart();
-		}
-		this.progressStep();
+    	this.progressStart();
+    	this.dijkstra(this.getGraph(), start, null, targets, count);
+    	this.progressEnd();
     }
 
     /**
-     * Clear up all data in the paths and houses of the file system
+     * Get the distance of a house from the start house of the last search
+     * @param house to look up
+     * @return the distance (-1 if the house was not settled by the last search)
      */
-    public void clear()
+    public int getDistance(DS_House house)
     {
-    	for(DS_House house : this.filesystem.getHouseList())
-    		house.clear();
-    	for(DS_Path path : this.filesystem.getPathList())
-    		path.clear();
+    	return this.context.isSettled(house.getID()) ? this.context.getDistance(house.getID()) : -1;
     }
 
     /**
-     * Dijkstra's graph searching procedure (recursive method)
-     * @param current house to process
+     * Dijkstra's graph searching procedure (settles every reachable house exactly once)
+     * @param graph snapshot of the map to search
+     * @param start house to search from
+     * @param end house at which to stop searching (null to settle every reachable house)
+     * @param targets flags of the houses at which to stop searching once all are settled (null for none)
+     * @param count number of houses flagged in targets
      * @throws EX_Exception
      */
-    private void dijkstra(DS_House current) throws EX_Exception
+    private void dijkstra(GS_Graph graph, DS_House start, DS_House end, boolean[] targets, int count) throws EX_Exception
     {
     	try {
-    		for(DS_Path Path : current.getPaths()) {
-    			if(Path.getEnd().getDistance() == -1 || current.getDistance() + Path.getWeight() < Path.getEnd().getDistance()) {
-    				Path.getEnd().setDistance(current.getDistance() + Path.getWeight());
-    				Path.getEnd().setShortest(Path);
+    		GS_SearchContext context = this.context;
+    		DS_IndexedHeap<DS_House> queue = context.getQueue();
+    		int[] offsets = graph.getOffsets(), targetIDs = graph.getTargets(), weights = graph.getWeights(), edges = graph.getEdges();
+    		int endID = (end == null) ? -1 : end.getID();
+    		this.settled = 0;
+    		context.reset(graph.getHouseCount());
+    		context.setDistance(start.getID(), 0, -1);
+    		queue.update(start.getID(), start, 0);
+    		while(!queue.isEmpty()) {
+    			int id = queue.pollID();
+    			context.setSettled(id);
+    			this.settled++;
+    			this.progressStep();
+    			if(id == endID) break;
+    			if(targets != null && id < targets.length && targets[id] && --count == 0) break;
+    			int d = context.getDistance(id);
+    			for(int e = offsets[id]; e < offsets[id + 1]; e++) {
+    				int nid = targetIDs[e];
+    				if(context.isSettled(nid)) continue;
+    				int distance = d + weights[e];
+    				if(!context.isReached(nid) || distance < context.getDistance(nid)) {
+    					context.setDistance(nid, distance, edges[e]);
+    					queue.update(nid, null, distance);
+    				}
     			}
-	        }
-	        current.setVisited(true);
-	        for(DS_Path Path : current.getPaths())
-	        	if(Path.getEnd().isVisited() == false)
-	        			this.dijkstra(Path.getEnd());
-			this.progressStep();
+    		}
     	} catch(Exception exception) {
     		throw new EX_Exception(exception.getMessage(), ErrorType.ERROR_GRAPHSEARCHING);
     	}
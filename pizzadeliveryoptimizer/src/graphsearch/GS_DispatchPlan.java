@@ -0,0 +1,75 @@
+package graphsearch;
+
+import datastructures.DS_House;
+
+public final class GS_DispatchPlan
+{
+
+	// Tour of every driver that has been given orders
+	private final GS_Tour[] tours;
+
+	// Orders that could not be given to any driver within the limits
+	private final DS_House[] unassigned;
+
+	/**
+	 * Dispatch plan constructor
+	 * @param tours of the drivers (copied)
+	 * @param unassigned orders left out of the plan (copied)
+	 */
+	public GS_DispatchPlan(GS_Tour[] tours, DS_House[] unassigned)
+	{
+		this.tours = tours.clone();
+		this.unassigned = unassigned.clone();
+	}
+
+	/**
+	 * Get the number of drivers that have been given orders
+	 * @return the number of tours
+	 */
+	public int getTourCount()
+	{
+		return this.tours.length;
+	}
+
+	/**
+	 * Get the tour of a driver
+	 * @param index of the tour
+	 * @return the tour
+	 */
+	public GS_Tour getTour(int index)
+	{
+		return this.tours[index];
+	}
+
+	/**
+	 * Get the number of orders left out of the plan
+	 * @return the number of unassigned orders
+	 */
+	public int getUnassignedCount()
+	{
+		return this.unassigned.length;
+	}
+
+	/**
+	 * Get an order left out of the plan
+	 * @param index of the order
+	 * @return the house of the order
+	 */
+	public DS_House getUnassigned(int index)
+	{
+		return this.unassigned[index];
+	}
+
+	/**
+	 * Get the total time driven by all of the drivers
+	 * @return the sum of the tour durations
+	 */
+	public int getDuration()
+	{
+		int duration = 0;
+		for(GS_Tour tour : this.tours)
+			duration += tour.getDuration();
+		return duration;
+	}
+
+}
@@ -0,0 +1,546 @@
+package graphsearch;
+
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import datastructures.DS_House;
+import errors.EX_Exception;
+import errors.EX_Exception.ErrorType;
+import filesystem.PA_FileSystem;
+
+public class GS_Dispatcher
+{
+
+	// Default time allowed to build a plan (in milliseconds)
+	public static final long DEFAULT_BUDGET = 500;
+
+	// Move types evaluated by the local search
+	private static final int RELOCATE = 0, SWAP = 1;
+
+	/**
+	 * Candidate change to the plan found by the local search
+	 */
+	private static final class Move
+	{
+		// Relocate (order of route a moved in front of position j of route b) or swap (orders exchanged)
+		int type;
+
+		// Routes and positions involved
+		int a, i, b, j;
+
+		// Change of the total driving time (negative if the move helps)
+		int delta;
+	}
+
+	// Map to plan the deliveries on
+	private final PA_FileSystem filesystem;
+
+	// Number of drivers, pizzas a driver can carry and longest tour a driver may drive (pizzeria back to pizzeria)
+	private final int drivers, capacity, maxTime;
+
+	// Number of threads evaluating moves
+	private final int threads;
+
+	// Travel times between the orders
+	private final GS_DistanceMatrix matrix;
+
+	// Travel times of the plan being built (index 0 is the pizzeria, order k is index k + 1)
+	private int[][] cost;
+
+	// Pizzas of every order (same indices as the cost matrix)
+	private int[] demand;
+
+	// Tours of the plan being built (each one starts and ends at index 0), and how many are in use
+	private int[][] routes;
+	private int count;
+
+	// Pizzas carried and time driven on every tour
+	private int[] load, duration;
+
+	// Whether every order has been given to a driver
+	private boolean[] assigned;
+
+	/**
+	 * Dispatcher class constructor
+	 * @param fs to use with this object
+	 * @param drivers number of drivers available
+	 * @param capacity number of pizzas a driver can carry
+	 * @param maxTime longest tour a driver may drive, from the pizzeria back to it
+	 */
+	public GS_Dispatcher(PA_FileSystem fs, int drivers, int capacity, int maxTime)
+	{
+		this.filesystem = fs;
+		this.drivers = Math.max(1, drivers);
+		this.capacity = capacity;
+		this.maxTime = maxTime;
+		this.threads = Runtime.getRuntime().availableProcessors();
+		this.matrix = new GS_DistanceMatrix(fs, this.threads);
+	}
+
+	/**
+	 * Share orders of one pizza each out between the drivers
+	 * @param orders houses to deliver to
+	 * @param budget time allowed to build the plan (in milliseconds)
+	 * @return the plan
+	 * @throws EX_Exception
+	 */
+	public GS_DispatchPlan dispatch(DS_House[] orders, long budget) throws EX_Exception
+	{
+		int[] demands = new int[orders.length];
+		Arrays.fill(demands, 1);
+		return this.dispatch(orders, demands, budget);
+	}
+
+	/**
+	 * Share orders out between the drivers
+	 * (savings construction, then moves between and within tours until none helps or the budget is spent)
+	 * (orders that do not fit in any tour are left unassigned)
+	 * @param orders houses to deliver to
+	 * @param demands number of pizzas of every order
+	 * @param budget time allowed to build the plan (in milliseconds)
+	 * @return the plan
+	 * @throws EX_Exception
+	 */
+	public GS_DispatchPlan dispatch(DS_House[] orders, int[] demands, long budget) throws EX_Exception
+	{
+		if(orders.length != demands.length)
+			throw new EX_Exception("Every order needs a number of pizzas", ErrorType.ERROR_GRAPHSEARCHING);
+		long start = System.nanoTime();
+
+		DS_House[] houses = new DS_House[orders.length + 1];
+		houses[0] = this.filesystem.getHouseByID(0);
+		System.arraycopy(orders, 0, houses, 1, orders.length);
+		this.prepare(houses, demands);
+		// Expanding the tours into paths takes about as many searches as the travel times did, keep time for it
+		long deadline = start + budget * 1000000L - (System.nanoTime() - start);
+
+		ExecutorService executor = Executors.newFixedThreadPool(this.threads);
+		try {
+			this.savings();
+			this.reduce();
+			this.improveRoutes(deadline);
+			while(System.nanoTime() < deadline) {
+				boolean changed = false;
+				for(Move move = this.findMove(executor); move != null && System.nanoTime() < deadline; move = this.findMove(executor)) {
+					this.apply(move);
+					changed = true;
+				}
+				changed |= this.insertUnassigned();
+				if(!changed || !this.improveRoutes(deadline))
+					break;
+			}
+			return this.build(houses, executor);
+		} catch(ExecutionException exception) {
+			if(exception.getCause() instanceof EX_Exception)
+				throw (EX_Exception)exception.getCause();
+			throw new EX_Exception(exception.getCause().getMessage(), ErrorType.ERROR_GRAPHSEARCHING);
+		} catch(InterruptedException exception) {
+			Thread.currentThread().interrupt();
+			throw new EX_Exception("Dispatching interrupted", ErrorType.ERROR_GRAPHSEARCHING);
+		} finally {
+			executor.shutdownNow();
+			this.cost = null;
+			this.routes = null;
+		}
+	}
+
+	/**
+	 * Set up the plan state for a new set of orders
+	 * @param houses pizzeria followed by the orders
+	 * @param demands number of pizzas of every order
+	 * @throws EX_Exception
+	 */
+	private void prepare(DS_House[] houses, int[] demands) throws EX_Exception
+	{
+		int n = houses.length;
+		int[] ids = new int[n];
+		for(int k = 0; k < n; k++)
+			ids[k] = houses[k].getID();
+		int[] flat = this.matrix.compute(ids, ids);
+		this.cost = new int[n][n];
+		for(int k = 0; k < n; k++)
+			System.arraycopy(flat, k * n, this.cost[k], 0, n);
+
+		this.demand = new int[n];
+		System.arraycopy(demands, 0, this.demand, 1, n - 1);
+		this.assigned = new boolean[n];
+		this.routes = new int[Math.max(n, this.drivers)][];
+		this.load = new int[this.routes.length];
+		this.duration = new int[this.routes.length];
+		this.count = 0;
+	}
+
+	/**
+	 * Determine if an order can be delivered on its own (reachable, small and close enough)
+	 * @param c index of the order
+	 * @return true if it can, false otherwise
+	 */
+	private boolean isServable(int c)
+	{
+		return this.cost[0][c] != -1 && this.cost[c][0] != -1 && this.demand[c] <= this.capacity
+				&& this.cost[0][c] + this.cost[c][0] <= this.maxTime;
+	}
+
+	/**
+	 * Build the first tours with the Clarke-Wright savings method
+	 * (every order starts on its own tour, tours are chained where that saves the most time)
+	 */
+	private void savings()
+	{
+		int n = this.cost.length;
+		int[] next = new int[n], route = new int[n], tail = new int[n], load = new int[n], time = new int[n];
+		int servable = 0;
+		for(int c = 1; c < n; c++) {
+			route[c] = -1;
+			if(!this.isServable(c)) continue;
+			route[c] = c;
+			tail[c] = c;
+			load[c] = this.demand[c];
+			time[c] = this.cost[0][c] + this.cost[c][0];
+			servable++;
+		}
+
+		// Sort the savings of driving i -> j directly instead of through the pizzeria (saving in the high bits)
+		long[] keys = new long[servable * servable];
+		int size = 0;
+		for(int i = 1; i < n; i++) {
+			if(route[i] == -1) continue;
+			for(int j = 1; j < n; j++) {
+				if(i == j || route[j] == -1) continue;
+				long saving = this.cost[i][0] + this.cost[0][j] - this.cost[i][j];
+				if(saving > 0)
+					keys[size++] = (saving << 32) | (i * n + j);
+			}
+		}
+		Arrays.sort(keys, 0, size);
+
+		for(int k = size - 1; k >= 0; k--) {
+			int pair = (int)(keys[k] & 0xFFFFFFFFL);
+			int i = pair / n, j = pair % n;
+			int ri = route[i], rj = route[j];
+			// i must end its tour and j must start another one (a tour is named after its first order)
+			if(ri == rj || tail[ri] != i || rj != j) continue;
+			int merged = time[ri] + time[rj] - this.cost[i][0] - this.cost[0][j] + this.cost[i][j];
+			if(load[ri] + load[rj] > this.capacity || merged > this.maxTime) continue;
+			next[i] = j;
+			for(int c = j; c != 0; c = next[c])
+				route[c] = ri;
+			tail[ri] = tail[rj];
+			load[ri] += load[rj];
+			time[ri] = merged;
+		}
+
+		for(int r = 1; r < n; r++) {
+			if(route[r] != r) continue;
+			int length = 2;
+			for(int c = r; c != 0; c = next[c])
+				length++;
+			int[] tour = new int[length];
+			int p = 1;
+			for(int c = r; c != 0; c = next[c]) {
+				tour[p++] = c;
+				this.assigned[c] = true;
+			}
+			this.add(tour);
+		}
+	}
+
+	/**
+	 * Break up the smallest tours until there is one per driver at most
+	 * (their orders are inserted into the other tours where possible)
+	 */
+	private void reduce()
+	{
+		while(this.count > this.drivers) {
+			int smallest = 0;
+			for(int r = 1; r < this.count; r++)
+				if(this.routes[r].length < this.routes[smallest].length)
+					smallest = r;
+			int[] tour = this.routes[smallest];
+			this.remove(smallest);
+			for(int p = 1; p < tour.length - 1; p++) {
+				this.assigned[tour[p]] = false;
+				this.insert(tour[p]);
+			}
+		}
+	}
+
+	/**
+	 * Try to give every unassigned order to a driver
+	 * @return true if an order was assigned, false otherwise
+	 */
+	private boolean insertUnassigned()
+	{
+		boolean changed = false;
+		for(int c = 1; c < this.cost.length; c++)
+			if(!this.assigned[c] && this.isServable(c))
+				changed |= this.insert(c);
+		return changed;
+	}
+
+	/**
+	 * Insert an order where it adds the least time (on a new tour if no tour has room and a driver is free)
+	 * @param c index of the order
+	 * @return true if the order was assigned, false otherwise
+	 */
+	private boolean insert(int c)
+	{
+		int bestRoute = -1, bestPosition = -1, bestDelta = Integer.MAX_VALUE;
+		for(int r = 0; r < this.count; r++) {
+			if(this.load[r] + this.demand[c] > this.capacity) continue;
+			int[] tour = this.routes[r];
+			for(int p = 1; p < tour.length; p++) {
+				int delta = this.cost[tour[p - 1]][c] + this.cost[c][tour[p]] - this.cost[tour[p - 1]][tour[p]];
+				if(delta < bestDelta && this.duration[r] + delta <= this.maxTime) {
+					bestRoute = r;
+					bestPosition = p;
+					bestDelta = delta;
+				}
+			}
+		}
+		if(bestRoute != -1) {
+			int[] tour = this.routes[bestRoute];
+			int[] result = new int[tour.length + 1];
+			System.arraycopy(tour, 0, result, 0, bestPosition);
+			result[bestPosition] = c;
+			System.arraycopy(tour, bestPosition, result, bestPosition + 1, tour.length - bestPosition);
+			this.set(bestRoute, result);
+		} else if(this.count < this.drivers && this.isServable(c)) {
+			this.add(new int[] { 0, c, 0 });
+		} else {
+			return false;
+		}
+		this.assigned[c] = true;
+		return true;
+	}
+
+	/**
+	 * Improve the order of the stops within every tour (2-opt and Or-opt)
+	 * @param deadline System.nanoTime() value at which to stop
+	 * @return true if a tour got shorter, false otherwise
+	 */
+	private boolean improveRoutes(long deadline)
+	{
+		boolean changed = false;
+		for(int r = 0; r < this.count; r++) {
+			GS_TourOptimizer.improve(this.routes[r], this.cost, deadline);
+			int time = GS_TourOptimizer.cost(this.routes[r], this.cost);
+			changed |= (time < this.duration[r]);
+			this.duration[r] = time;
+		}
+		return changed;
+	}
+
+	/**
+	 * Find the best move between two tours (the orders are shared out between the threads)
+	 * @param executor to run the evaluations on
+	 * @return the move that saves the most time (null if none does)
+	 * @throws InterruptedException
+	 * @throws ExecutionException
+	 */
+	private Move findMove(ExecutorService executor) throws InterruptedException, ExecutionException
+	{
+		Future<?>[] futures = new Future<?>[this.threads];
+		for(int t = 0; t < this.threads; t++) {
+			final int stripe = t;
+			futures[t] = executor.submit(new Callable<Move>() {
+				public Move call()
+				{
+					return GS_Dispatcher.this.evaluate(stripe);
+				}
+			});
+		}
+		Move best = null;
+		for(Future<?> future : futures) {
+			Move move = (Move)future.get();
+			if(move != null && (best == null || move.delta < best.delta))
+				best = move;
+		}
+		return best;
+	}
+
+	/**
+	 * Evaluate the relocate and swap moves of every order of one stripe (reads the plan only)
+	 * @param stripe index of the thread, it evaluates the orders whose position modulo the thread count matches
+	 * @return the best improving move (null if none)
+	 */
+	private Move evaluate(int stripe)
+	{
+		Move best = null;
+		int position = 0;
+		// A relocate may open a new tour if a driver is still free
+		int targets = (this.count < this.drivers) ? this.count + 1 : this.count;
+		for(int a = 0; a < this.count; a++) {
+			int[] from = this.routes[a];
+			for(int i = 1; i < from.length - 1; i++) {
+				if(position++ % this.threads != stripe) continue;
+				int x = from[i], before = from[i - 1], after = from[i + 1];
+				int removed = this.cost[before][after] - this.cost[before][x] - this.cost[x][after];
+				for(int b = 0; b < targets; b++) {
+					if(b == a) continue;
+					int[] to = (b < this.count) ? this.routes[b] : new int[] { 0, 0 };
+					int load = (b < this.count) ? this.load[b] : 0, time = (b < this.count) ? this.duration[b] : 0;
+
+					if(load + this.demand[x] <= this.capacity) {
+						for(int j = 1; j < to.length; j++) {
+							int added = this.cost[to[j - 1]][x] + this.cost[x][to[j]] - this.cost[to[j - 1]][to[j]];
+							if(removed + added < 0 && time + added <= this.maxTime
+									&& (best == null || removed + added < best.delta))
+								best = this.move(RELOCATE, a, i, b, j, removed + added);
+						}
+					}
+					if(b >= this.count || b < a) continue;
+					for(int j = 1; j < to.length - 1; j++) {
+						int y = to[j];
+						if(this.load[a] - this.demand[x] + this.demand[y] > this.capacity
+								|| load - this.demand[y] + this.demand[x] > this.capacity) continue;
+						int deltaA = this.cost[before][y] + this.cost[y][after] - this.cost[before][x] - this.cost[x][after];
+						int deltaB = this.cost[to[j - 1]][x] + this.cost[x][to[j + 1]] - this.cost[to[j - 1]][y] - this.cost[y][to[j + 1]];
+						if(deltaA + deltaB < 0 && this.duration[a] + deltaA <= this.maxTime && time + deltaB <= this.maxTime
+								&& (best == null || deltaA + deltaB < best.delta))
+							best = this.move(SWAP, a, i, b, j, deltaA + deltaB);
+					}
+				}
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Create a move
+	 * @param type of the move
+	 * @param a first route
+	 * @param i position in the first route
+	 * @param b second route
+	 * @param j position in the second route
+	 * @param delta change of the total driving time
+	 * @return the move
+	 */
+	private Move move(int type, int a, int i, int b, int j, int delta)
+	{
+		Move move = new Move();
+		move.type = type;
+		move.a = a;
+		move.i = i;
+		move.b = b;
+		move.j = j;
+		move.delta = delta;
+		return move;
+	}
+
+	/**
+	 * Apply a move to the plan
+	 * @param move to apply
+	 */
+	private void apply(Move move)
+	{
+		int[] from = this.routes[move.a];
+		if(move.type == SWAP) {
+			int[] to = this.routes[move.b];
+			int swap = from[move.i];
+			from[move.i] = to[move.j];
+			to[move.j] = swap;
+			this.set(move.a, from);
+			this.set(move.b, to);
+			return;
+		}
+
+		int x = from[move.i];
+		if(move.b == this.count)
+			this.add(new int[] { 0, 0 });
+		int[] to = this.routes[move.b];
+		int[] grown = new int[to.length + 1];
+		System.arraycopy(to, 0, grown, 0, move.j);
+		grown[move.j] = x;
+		System.arraycopy(to, move.j, grown, move.j + 1, to.length - move.j);
+		int[] shrunk = new int[from.length - 1];
+		System.arraycopy(from, 0, shrunk, 0, move.i);
+		System.arraycopy(from, move.i + 1, shrunk, move.i, from.length - move.i - 1);
+		this.set(move.b, grown);
+		this.set(move.a, shrunk);
+		if(shrunk.length == 2)
+			this.remove(move.a);
+	}
+
+	/**
+	 * Add a tour to the plan
+	 * @param tour to add
+	 */
+	private void add(int[] tour)
+	{
+		this.set(this.count++, tour);
+	}
+
+	/**
+	 * Replace a tour of the plan and update its load and driving time
+	 * @param r index of the tour
+	 * @param tour new content
+	 */
+	private void set(int r, int[] tour)
+	{
+		this.routes[r] = tour;
+		this.load[r] = 0;
+		for(int p = 1; p < tour.length - 1; p++)
+			this.load[r] += this.demand[tour[p]];
+		this.duration[r] = GS_TourOptimizer.cost(tour, this.cost);
+	}
+
+	/**
+	 * Remove a tour from the plan (the last tour takes its place)
+	 * @param r index of the tour
+	 */
+	private void remove(int r)
+	{
+		this.count--;
+		this.routes[r] = this.routes[this.count];
+		this.load[r] = this.load[this.count];
+		this.duration[r] = this.duration[this.count];
+		this.routes[this.count] = null;
+	}
+
+	/**
+	 * Expand the tours into paths and collect the unassigned orders
+	 * @param houses pizzeria followed by the orders
+	 * @param executor to run the searches on
+	 * @return the plan
+	 * @throws InterruptedException
+	 * @throws ExecutionException
+	 */
+	private GS_DispatchPlan build(final DS_House[] houses, ExecutorService executor) throws InterruptedException, ExecutionException
+	{
+		Future<?>[] futures = new Future<?>[this.count];
+		for(int r = 0; r < this.count; r++) {
+			final int[] tour = this.routes[r];
+			futures[r] = executor.submit(new Callable<GS_Tour>() {
+				public GS_Tour call() throws EX_Exception
+				{
+					GS_Dijkstra engine = new GS_Dijkstra(GS_Dispatcher.this.filesystem, null);
+					DS_House[] stops = new DS_House[tour.length - 2];
+					GS_Route[] legs = new GS_Route[tour.length - 1];
+					for(int p = 0; p < legs.length; p++) {
+						if(p > 0) stops[p - 1] = houses[tour[p]];
+						legs[p] = engine.search(houses[tour[p]], houses[tour[p + 1]]);
+					}
+					return new GS_Tour(houses[0], stops, legs);
+				}
+			});
+		}
+		GS_Tour[] tours = new GS_Tour[this.count];
+		for(int r = 0; r < this.count; r++)
+			tours[r] = (GS_Tour)futures[r].get();
+
+		int left = 0;
+		for(int c = 1; c < houses.length; c++)
+			if(!this.assigned[c]) left++;
+		DS_House[] unassigned = new DS_House[left];
+		left = 0;
+		for(int c = 1; c < houses.length; c++)
+			if(!this.assigned[c]) unassigned[left++] = houses[c];
+		return new GS_DispatchPlan(tours, unassigned);
+	}
+
+}
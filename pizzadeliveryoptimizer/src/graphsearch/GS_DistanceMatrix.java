@@ -0,0 +1,122 @@
+package graphsearch;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import datastructures.DS_House;
+import errors.EX_Exception;
+import errors.EX_Exception.ErrorType;
+import filesystem.PA_FileSystem;
+
+public class GS_DistanceMatrix
+{
+
+	// Map to compute the distances on (read only while a matrix is being computed)
+	private final PA_FileSystem filesystem;
+
+	// Number of searches run at the same time
+	private final int threads;
+
+	/**
+	 * Distance matrix class constructor (uses one thread per available processor)
+	 * @param fs to use with this object
+	 */
+	public GS_DistanceMatrix(PA_FileSystem fs)
+	{
+		this(fs, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Distance matrix class constructor
+	 * @param fs to use with this object
+	 * @param threads number of searches to run at the same time
+	 */
+	public GS_DistanceMatrix(PA_FileSystem fs, int threads)
+	{
+		this.filesystem = fs;
+		this.threads = Math.max(1, threads);
+	}
+
+	/**
+	 * Compute the travel times from every source house to every target house
+	 * (one search per source, the sources are shared out between the threads)
+	 * @param sources IDs of the source houses
+	 * @param targets IDs of the target houses
+	 * @return row-major matrix, entry [i * targets.length + j] is the time from sources[i] to targets[j] (-1 if unreachable)
+	 * @throws EX_Exception
+	 */
+	public int[] compute(int[] sources, int[] targets) throws EX_Exception
+	{
+		final DS_House[] from = this.getHouses(sources);
+		final DS_House[] to = this.getHouses(targets);
+		final int[] matrix = new int[from.length * to.length];
+		if(matrix.length == 0)
+			return matrix;
+
+		// Flag the distinct targets once, every search stops when all of them are settled
+		final boolean[] flags = new boolean[this.filesystem.getNumHouses()];
+		int distinct = 0;
+		for(DS_House house : to) {
+			if(flags[house.getID()]) continue;
+			flags[house.getID()] = true;
+			distinct++;
+		}
+		final int count = distinct;
+
+		// Every worker owns a search engine and takes the next source row until none are left
+		final AtomicInteger next = new AtomicInteger(0);
+		int workers = Math.min(this.threads, from.length);
+		ExecutorService executor = Executors.newFixedThreadPool(workers);
+		try {
+			Future<?>[] futures = new Future<?>[workers];
+			for(int w = 0; w < workers; w++) {
+				futures[w] = executor.submit(new Callable<Void>() {
+					public Void call() throws EX_Exception
+					{
+						GS_Dijkstra engine = new GS_Dijkstra(GS_DistanceMatrix.this.filesystem, null);
+						for(int i = next.getAndIncrement(); i < from.length; i = next.getAndIncrement()) {
+							engine.searchMany(from[i], flags, count);
+							for(int j = 0; j < to.length; j++)
+								matrix[i * to.length + j] = engine.getDistance(to[j]);
+						}
+						return null;
+					}
+				});
+			}
+			for(Future<?> future : futures)
+				future.get();
+		} catch(ExecutionException exception) {
+			if(exception.getCause() instanceof EX_Exception)
+				throw (EX_Exception)exception.getCause();
+			throw new EX_Exception(exception.getCause().getMessage(), ErrorType.ERROR_GRAPHSEARCHING);
+		} catch(InterruptedException exception) {
+			Thread.currentThread().interrupt();
+			throw new EX_Exception("Distance matrix computation interrupted", ErrorType.ERROR_GRAPHSEARCHING);
+		} finally {
+			executor.shutdownNow();
+		}
+		return matrix;
+	}
+
+	/**
+	 * Look up the houses of the map
+	 * @param ids of the houses
+	 * @return the houses in the same order
+	 * @throws EX_Exception if an ID does not belong to a house
+	 */
+	private DS_House[] getHouses(int[] ids) throws EX_Exception
+	{
+		DS_House[] houses = new DS_House[ids.length];
+		for(int i = 0; i < ids.length; i++) {
+			houses[i] = this.filesystem.getHouseByID(ids[i]);
+			if(houses[i] == null)
+				throw new EX_Exception("No house with ID " + ids[i], ErrorType.ERROR_GRAPHSEARCHING);
+		}
+		return houses;
+	}
+
+}
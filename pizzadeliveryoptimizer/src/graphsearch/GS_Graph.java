@@ -0,0 +1,228 @@
+package graphsearch;
+
+import java.util.WeakHashMap;
+
+import datastructures.DS_House;
+import datastructures.DS_Path;
+import filesystem.PA_FileSystem;
+
+public final class GS_Graph
+{
+
+	// Latest snapshot of every map (dropped along with the map)
+	private static final WeakHashMap<PA_FileSystem, GS_Graph> snapshots = new WeakHashMap<PA_FileSystem, GS_Graph>();
+
+	// Map revision the snapshot was taken at
+	private final int revision;
+
+	// Houses and paths indexed by ID (null for free record slots)
+	private final DS_House[] houses;
+	private final DS_Path[] paths;
+
+	// Paths leaving every house: those of house i are entries offsets[i] to offsets[i + 1] - 1
+	// of the end house, weight and path ID arrays
+	private final int[] offsets, targets, weights, edges;
+
+	// Paths reaching every house, laid out the same way with the start houses as sources
+	private final int[] inOffsets, sources, inWeights, inEdges;
+
+	// Heaviest path weight (0 if there are no paths)
+	private final int maxWeight;
+
+	/**
+	 * Get an up to date snapshot of a map (taken again only if the map was edited since the last one)
+	 * (can be called from many threads at once, the snapshot itself is never modified)
+	 * @param fs map to take the snapshot of
+	 * @return the snapshot
+	 */
+	public static GS_Graph get(PA_FileSystem fs)
+	{
+		synchronized(snapshots) {
+			GS_Graph graph = snapshots.get(fs);
+			if(graph == null || graph.revision != fs.getRevision()) {
+				graph = new GS_Graph(fs);
+				snapshots.put(fs, graph);
+			}
+			return graph;
+		}
+	}
+
+	/**
+	 * Snapshot constructor (lays the paths of every house out next to each other)
+	 * @param fs map to take the snapshot of
+	 */
+	private GS_Graph(PA_FileSystem fs)
+	{
+		this.revision = fs.getRevision();
+		int n = fs.getNumHouses();
+		this.houses = new DS_House[n];
+		for(DS_House house : fs.getHouseList())
+			this.houses[house.getID()] = house;
+
+		int m = 0, maxID = -1, maxWeight = 0;
+		this.offsets = new int[n + 1];
+		this.inOffsets = new int[n + 1];
+		for(DS_Path path : fs.getPathList()) {
+			m++;
+			maxID = Math.max(maxID, path.getID());
+			maxWeight = Math.max(maxWeight, path.getWeight());
+			this.offsets[path.getStart().getID() + 1]++;
+			this.inOffsets[path.getEnd().getID() + 1]++;
+		}
+		for(int i = 0; i < n; i++) {
+			this.offsets[i + 1] += this.offsets[i];
+			this.inOffsets[i + 1] += this.inOffsets[i];
+		}
+		this.maxWeight = maxWeight;
+
+		this.paths = new DS_Path[maxID + 1];
+		this.targets = new int[m];
+		this.weights = new int[m];
+		this.edges = new int[m];
+		this.sources = new int[m];
+		this.inWeights = new int[m];
+		this.inEdges = new int[m];
+		int[] next = new int[n], inNext = new int[n];
+		for(DS_House house : fs.getHouseList()) {
+			int id = house.getID();
+			next[id] = this.offsets[id];
+			inNext[id] = this.inOffsets[id];
+		}
+		// Walking the houses' own lists keeps the paths in the order the engines used to relax them
+		for(DS_House house : fs.getHouseList()) {
+			for(DS_Path path : house.getPaths()) {
+				int e = next[house.getID()]++;
+				this.targets[e] = path.getEnd().getID();
+				this.weights[e] = path.getWeight();
+				this.edges[e] = path.getID();
+				this.paths[path.getID()] = path;
+			}
+			for(DS_Path path : house.getIncomingPaths()) {
+				int e = inNext[house.getID()]++;
+				this.sources[e] = path.getStart().getID();
+				this.inWeights[e] = path.getWeight();
+				this.inEdges[e] = path.getID();
+			}
+		}
+	}
+
+	/**
+	 * Get the map revision the snapshot was taken at
+	 * @return the revision number
+	 */
+	public int getRevision()
+	{
+		return this.revision;
+	}
+
+	/**
+	 * Get the number of house IDs (free record slots included)
+	 * @return the number of IDs
+	 */
+	public int getHouseCount()
+	{
+		return this.houses.length;
+	}
+
+	/**
+	 * Get a house from its ID
+	 * @param id of the house
+	 * @return the house (null for a free record slot)
+	 */
+	public DS_House getHouse(int id)
+	{
+		return this.houses[id];
+	}
+
+	/**
+	 * Get a path from its ID
+	 * @param id of the path
+	 * @return the path (null for a free record slot)
+	 */
+	public DS_Path getPath(int id)
+	{
+		return this.paths[id];
+	}
+
+	/**
+	 * Get the heaviest path weight
+	 * @return the weight (0 if there are no paths)
+	 */
+	public int getMaxWeight()
+	{
+		return this.maxWeight;
+	}
+
+	/**
+	 * Get the offsets of the paths leaving every house (n + 1 entries, must not be modified)
+	 * @return the offsets into the target, weight and edge arrays
+	 */
+	public int[] getOffsets()
+	{
+		return this.offsets;
+	}
+
+	/**
+	 * Get the end house ID of every path, grouped by start house (must not be modified)
+	 * @return the house IDs
+	 */
+	public int[] getTargets()
+	{
+		return this.targets;
+	}
+
+	/**
+	 * Get the weight of every path, grouped by start house (must not be modified)
+	 * @return the weights
+	 */
+	public int[] getWeights()
+	{
+		return this.weights;
+	}
+
+	/**
+	 * Get the ID of every path, grouped by start house (must not be modified)
+	 * @return the path IDs
+	 */
+	public int[] getEdges()
+	{
+		return this.edges;
+	}
+
+	/**
+	 * Get the offsets of the paths reaching every house (n + 1 entries, must not be modified)
+	 * @return the offsets into the source, incoming weight and incoming edge arrays
+	 */
+	public int[] getInOffsets()
+	{
+		return this.inOffsets;
+	}
+
+	/**
+	 * Get the start house ID of every path, grouped by end house (must not be modified)
+	 * @return the house IDs
+	 */
+	public int[] getSources()
+	{
+		return this.sources;
+	}
+
+	/**
+	 * Get the weight of every path, grouped by end house (must not be modified)
+	 * @return the weights
+	 */
+	public int[] getInWeights()
+	{
+		return this.inWeights;
+	}
+
+	/**
+	 * Get the ID of every path, grouped by end house (must not be modified)
+	 * @return the path IDs
+	 */
+	public int[] getInEdges()
+	{
+		return this.inEdges;
+	}
+
+}
@@ -0,0 +1,198 @@
+package graphsearch;
+
+import java.util.Arrays;
+
+import datastructures.DS_GenericList;
+import datastructures.DS_House;
+import datastructures.DS_IndexedHeap;
+import errors.EX_Exception;
+import errors.EX_Exception.ErrorType;
+import filesystem.PA_FileSystem;
+
+public class GS_Isochrone
+{
+
+	/**
+	 * Houses settled around a source, nearest first (the answer for any budget up to the radius is a prefix)
+	 */
+	private static final class Zone
+	{
+		// Settled houses and their distances, in settling order
+		DS_House[] houses;
+		int[] distance;
+
+		// Number of entries in use
+		int count;
+
+		// Largest budget the zone answers for (Integer.MAX_VALUE once every reachable house is in it)
+		int radius;
+	}
+
+	// Map to search (the cached zones are dropped whenever its revision changes)
+	private final PA_FileSystem filesystem;
+
+	// Per query search state
+	private final GS_SearchContext context;
+
+	// Cached zone of every source house, indexed by house ID (null if none)
+	private Zone[] zones;
+
+	// Map revision the cached zones were computed for
+	private int revision;
+
+	// Snapshot of the map searched by the last zone computation
+	private GS_Graph graph;
+
+	/**
+	 * Isochrone class constructor
+	 * @param fs to use with this object
+	 */
+	public GS_Isochrone(PA_FileSystem fs)
+	{
+		this.filesystem = fs;
+		this.context = new GS_SearchContext(fs.getNumHouses());
+		this.zones = new Zone[0];
+		this.revision = fs.getRevision();
+	}
+
+	/**
+	 * Find every house that can be reached from a house within a time budget
+	 * @param source house to measure the times from
+	 * @param budget time available
+	 * @return the houses whose distance is at most the budget, nearest first (source included)
+	 * @throws EX_Exception
+	 */
+	public DS_GenericList<DS_House> search(DS_House source, int budget) throws EX_Exception
+	{
+		return this.search(source, new int[] { budget })[0];
+	}
+
+	/**
+	 * Find the houses that can be reached from a house within several time budgets
+	 * (a single search covers the largest budget, it is cached until the map is edited)
+	 * @param source house to measure the times from
+	 * @param budgets times available
+	 * @return for every budget, the houses whose distance is at most the budget, nearest first
+	 * @throws EX_Exception
+	 */
+	public DS_GenericList<DS_House>[] search(DS_House source, int[] budgets) throws EX_Exception
+	{
+		int max = -1;
+		for(int budget : budgets)
+			max = Math.max(max, budget);
+		Zone zone = this.getZone(source, max);
+
+		// Generic arrays can't be created, the raw array only ever holds house lists
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		DS_GenericList<DS_House>[] result = new DS_GenericList[budgets.length];
+		for(int b = 0; b < budgets.length; b++) {
+			result[b] = new DS_GenericList<DS_House>();
+			for(int i = 0; i < zone.count && zone.distance[i] <= budgets[b]; i++)
+				result[b].add(zone.houses[i]);
+		}
+		return result;
+	}
+
+	/**
+	 * Count the houses that can be reached from a house within a time budget
+	 * @param source house to measure the times from
+	 * @param budget time available
+	 * @return the number of houses whose distance is at most the budget
+	 * @throws EX_Exception
+	 */
+	public int count(DS_House source, int budget) throws EX_Exception
+	{
+		Zone zone = this.getZone(source, budget);
+		int low = 0, high = zone.count;
+		while(low < high) {
+			int middle = (low + high) >>> 1;
+			if(zone.distance[middle] <= budget) low = middle + 1;
+			else high = middle;
+		}
+		return low;
+	}
+
+	/**
+	 * Get the zone of a source house, searching again only if the cached one is too small or out of date
+	 * @param source house
+	 * @param budget largest budget the zone must answer for
+	 * @return the zone
+	 * @throws EX_Exception
+	 */
+	private Zone getZone(DS_House source, int budget) throws EX_Exception
+	{
+		int capacity = this.filesystem.getNumHouses();
+		if(this.revision != this.filesystem.getRevision() || this.zones.length < capacity) {
+			this.zones = new Zone[capacity];
+			this.revision = this.filesystem.getRevision();
+		}
+
+		Zone zone = this.zones[source.getID()];
+		if(zone == null || zone.radius < budget) {
+			zone = this.grow(source, budget);
+			this.zones[source.getID()] = zone;
+		}
+		return zone;
+	}
+
+	/**
+	 * Settle the houses around a source in distance order until the budget is exceeded (Dijkstra)
+	 * (houses further than the budget are never queued)
+	 * @param source house
+	 * @param budget time available
+	 * @return the new zone
+	 * @throws EX_Exception
+	 */
+	private Zone grow(DS_House source, int budget) throws EX_Exception
+	{
+		Zone zone = new Zone();
+		zone.houses = new DS_House[16];
+		zone.distance = new int[16];
+		zone.radius = budget;
+		if(budget < 0) return zone;
+
+		boolean cut = false;
+		try {
+			GS_SearchContext context = this.context;
+			DS_IndexedHeap<DS_House> queue = context.getQueue();
+			if(this.graph == null || this.graph.getRevision() != this.filesystem.getRevision())
+				this.graph = GS_Graph.get(this.filesystem);
+			GS_Graph graph = this.graph;
+			int[] offsets = graph.getOffsets(), targets = graph.getTargets(), weights = graph.getWeights(), edges = graph.getEdges();
+			context.reset(graph.getHouseCount());
+			context.setDistance(source.getID(), 0, -1);
+			queue.update(source.getID(), source, 0);
+			while(!queue.isEmpty()) {
+				int id = queue.pollID(), d = context.getDistance(id);
+				context.setSettled(id);
+				if(zone.count == zone.houses.length) {
+					zone.houses = Arrays.copyOf(zone.houses, zone.count * 2);
+					zone.distance = Arrays.copyOf(zone.distance, zone.count * 2);
+				}
+				zone.houses[zone.count] = graph.getHouse(id);
+				zone.distance[zone.count++] = d;
+				for(int e = offsets[id]; e < offsets[id + 1]; e++) {
+					int nid = targets[e];
+					int distance = d + weights[e];
+					if(context.isSettled(nid)) continue;
+					if(distance > budget) {
+						cut = true;
+						continue;
+					}
+					if(!context.isReached(nid) || distance < context.getDistance(nid)) {
+						context.setDistance(nid, distance, edges[e]);
+						queue.update(nid, null, distance);
+					}
+				}
+			}
+		} catch(Exception exception) {
+			throw new EX_Exception(exception.getMessage(), ErrorType.ERROR_GRAPHSEARCHING);
+		}
+
+		// Nothing was left out, so the zone answers for any budget
+		if(cut == false)
+			zone.radius = Integer.MAX_VALUE;
+		return zone;
+	}
+
+}
@@ -0,0 +1,318 @@
+package graphsearch;
+
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import javax.swing.JProgressBar;
+
+import datastructures.DS_GenericList;
+import datastructures.DS_House;
+import datastructures.DS_IndexedHeap;
+import datastructures.DS_Path;
+import errors.EX_Exception;
+import errors.EX_Exception.ErrorType;
+import filesystem.PA_FileSystem;
+
+public class GS_KShortestPaths extends GS_Search
+{
+
+	/**
+	 * Search engine for the spur routes (one per thread, reused between queries)
+	 */
+	private final class Spur
+	{
+		// Per query search state
+		private final GS_SearchContext context = new GS_SearchContext(0);
+
+		// Houses the spur route may not go through (stamp equal to the current generation)
+		private int[] blocked = new int[0];
+		private int generation;
+
+		// Number of houses settled by this engine since it was last reset
+		private int settled;
+
+		/**
+		 * Find the shortest route avoiding some houses and paths (Dijkstra)
+		 * @param start house of the spur route
+		 * @param end house of the spur route
+		 * @param houses that may not be visited
+		 * @param count number of entries of houses in use
+		 * @param paths IDs of the paths that may not be used
+		 * @param pathCount number of entries of paths in use
+		 * @return the spur route (null if there is none)
+		 */
+		DS_Path[] search(DS_House start, DS_House end, DS_House[] houses, int count, int[] paths, int pathCount)
+		{
+			GS_Graph graph = GS_KShortestPaths.this.getGraph();
+			int[] offsets = graph.getOffsets(), targets = graph.getTargets(), weights = graph.getWeights(), edges = graph.getEdges();
+			int capacity = graph.getHouseCount();
+			if(this.blocked.length < capacity)
+				this.blocked = Arrays.copyOf(this.blocked, capacity);
+			this.generation++;
+			for(int i = 0; i < count; i++)
+				this.blocked[houses[i].getID()] = this.generation;
+
+			GS_SearchContext context = this.context;
+			DS_IndexedHeap<DS_House> queue = context.getQueue();
+			context.reset(capacity);
+			context.setDistance(start.getID(), 0, -1);
+			queue.update(start.getID(), start, 0);
+			while(!queue.isEmpty()) {
+				int id = queue.pollID();
+				context.setSettled(id);
+				this.settled++;
+				if(id == end.getID()) break;
+				int d = context.getDistance(id);
+				for(int e = offsets[id]; e < offsets[id + 1]; e++) {
+					int nid = targets[e];
+					if(context.isSettled(nid) || this.blocked[nid] == this.generation || contains(paths, pathCount, edges[e]))
+						continue;
+					int distance = d + weights[e];
+					if(!context.isReached(nid) || distance < context.getDistance(nid)) {
+						context.setDistance(nid, distance, edges[e]);
+						queue.update(nid, null, distance);
+					}
+				}
+			}
+			if(!context.isReached(end.getID()))
+				return null;
+
+			DS_Path[] route = new DS_Path[16];
+			int length = 0;
+			for(DS_House house = end; house != start; house = route[length - 1].getStart()) {
+				if(length == route.length) route = Arrays.copyOf(route, length * 2);
+				route[length++] = graph.getPath(context.getPredecessor(house.getID()));
+			}
+			return GS_KShortestPaths.this.reverse(route, length);
+		}
+	}
+
+	// Default number of routes returned
+	public static final int DEFAULT_ROUTES = 3;
+
+	// Number of threads running spur searches
+	private final int threads;
+
+	// Spur search engine of every thread
+	private final Spur[] spurs;
+
+	// Threads running spur searches, started by the first query that needs them and kept for the next ones
+	private ExecutorService executor;
+
+	/**
+	 * k shortest paths graph searching class constructor
+	 * @param fs to use with this object
+	 * @param progressbar object to report the progress of current operations
+	 */
+	public GS_KShortestPaths(PA_FileSystem fs, JProgressBar progressbar)
+	{
+		super(fs, progressbar);
+		this.threads = Runtime.getRuntime().availableProcessors();
+		this.spurs = new Spur[this.threads];
+		for(int t = 0; t < this.threads; t++)
+			this.spurs[t] = new Spur();
+	}
+
+	/**
+	 * Stop the threads running spur searches (a later query starts new ones)
+	 */
+	public void shutdown()
+	{
+		if(this.executor != null) this.executor.shutdownNow();
+		this.executor = null;
+	}
+
+	/**
+	 * Start the graph searching process and link up the two requested houses
+	 * @param start house
+	 * @param end house
+	 * @return the shortest route
+	 * @throws EX_Exception
+	 */
+	public GS_Route search(DS_House start, DS_House end) throws EX_Exception
+	{
+		return this.search(start, end, 1)[0];
+	}
+
+	/**
+	 * Find the k shortest routes without loops between two houses (Yen's algorithm)
+	 * (every route found is branched off at each of its houses, the branches are searched in parallel)
+	 * @param start house
+	 * @param end house
+	 * @param k number of routes wanted
+	 * @return the routes from the shortest to the longest (fewer than k if there are no more)
+	 * @throws EX_Exception if the end house could not be reached
+	 */
+	public GS_Route[] search(DS_House start, DS_House end, int k) throws EX_Exception
+	{
+		this.progressStart();
+		this.settled = 0;
+		for(Spur spur : this.spurs)
+			spur.settled = 0;
+
+		DS_GenericList<DS_Path[]> found = new DS_GenericList<DS_Path[]>();
+		DS_GenericList<DS_Path[]> candidates = new DS_GenericList<DS_Path[]>();
+		DS_Path[] first = this.spurs[0].search(start, end, new DS_House[0], 0, new int[0], 0);
+		if(first == null)
+			throw new EX_Exception(1, ErrorType.ERROR_GRAPHSEARCHING);
+		found.add(first);
+
+		// The threads don't keep the application running, so an unused object needs no shutdown
+		if(this.threads > 1 && k > 1 && this.executor == null)
+			this.executor = Executors.newFixedThreadPool(this.threads, new ThreadFactory() {
+				public Thread newThread(Runnable runnable)
+				{
+					Thread thread = new Thread(runnable, "Spur search");
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+		ExecutorService executor = (k > 1) ? this.executor : null;
+		try {
+			for(DS_Path[] last = first; found.size() < k; ) {
+				for(DS_Path[] candidate : this.branch(end, last, found, executor)) {
+					boolean duplicate = false;
+					for(DS_Path[] other : candidates)
+						duplicate |= Arrays.equals(other, candidate);
+					for(DS_Path[] other : found)
+						duplicate |= Arrays.equals(other, candidate);
+					if(!duplicate) candidates.add(candidate);
+				}
+				if(candidates.isEmpty()) break;
+
+				last = null;
+				for(DS_Path[] candidate : candidates)
+					if(last == null || weight(candidate) < weight(last))
+						last = candidate;
+				candidates.remove(last);
+				found.add(last);
+				this.progressStep();
+			}
+		} catch(ExecutionException exception) {
+			throw new EX_Exception(exception.getCause().getMessage(), ErrorType.ERROR_GRAPHSEARCHING);
+		} catch(InterruptedException exception) {
+			Thread.currentThread().interrupt();
+			this.shutdown();
+			throw new EX_Exception("Route search interrupted", ErrorType.ERROR_GRAPHSEARCHING);
+		}
+
+		for(Spur spur : this.spurs)
+			this.settled += spur.settled;
+		GS_Route[] routes = new GS_Route[found.size()];
+		int index = 0;
+		for(DS_Path[] paths : found)
+			routes[index++] = new GS_Route(start, end, paths, this.settled);
+		this.progressEnd();
+		return routes;
+	}
+
+	/**
+	 * Branch a route off at each of its houses (the spur routes of Yen's algorithm)
+	 * @param end house
+	 * @param route to branch off
+	 * @param found routes already chosen
+	 * @param executor to run the spur searches on (null to run them in the calling thread)
+	 * @return the new candidate routes
+	 * @throws InterruptedException
+	 * @throws ExecutionException
+	 */
+	private DS_GenericList<DS_Path[]> branch(final DS_House end, final DS_Path[] route,
+			final DS_GenericList<DS_Path[]> found, ExecutorService executor) throws InterruptedException, ExecutionException
+	{
+		final DS_Path[][] results = new DS_Path[route.length][];
+		if(executor == null) {
+			for(int i = 0; i < route.length; i++)
+				results[i] = this.spurRoute(this.spurs[0], end, route, i, found);
+		} else {
+			int workers = Math.min(this.threads, route.length);
+			Future<?>[] futures = new Future<?>[workers];
+			for(int t = 0; t < workers; t++) {
+				final int stripe = t, step = workers;
+				final Spur spur = this.spurs[t];
+				futures[t] = executor.submit(new Callable<Void>() {
+					public Void call()
+					{
+						for(int i = stripe; i < route.length; i += step)
+							results[i] = GS_KShortestPaths.this.spurRoute(spur, end, route, i, found);
+						return null;
+					}
+				});
+			}
+			for(Future<?> future : futures)
+				future.get();
+		}
+
+		DS_GenericList<DS_Path[]> candidates = new DS_GenericList<DS_Path[]>();
+		for(DS_Path[] result : results)
+			if(result != null) candidates.add(result);
+		return candidates;
+	}
+
+	/**
+	 * Find the best route that follows another one up to a house and then leaves it
+	 * @param spur search engine to use
+	 * @param end house
+	 * @param route to branch off
+	 * @param i number of paths of route kept (the branch starts at the start house of path i)
+	 * @param found routes already chosen
+	 * @return the whole candidate route (null if there is none)
+	 */
+	private DS_Path[] spurRoute(Spur spur, DS_House end, DS_Path[] route, int i, DS_GenericList<DS_Path[]> found)
+	{
+		// The paths leaving the branch house along any chosen route with the same beginning are closed
+		int[] paths = new int[found.size()];
+		int pathCount = 0;
+		for(DS_Path[] other : found) {
+			if(other.length <= i) continue;
+			boolean same = true;
+			for(int p = 0; p < i && same; p++)
+				same = (other[p] == route[p]);
+			if(same) paths[pathCount++] = other[i].getID();
+		}
+
+		// The houses before the branch house are closed, the route would loop otherwise
+		DS_House[] houses = new DS_House[i];
+		for(int p = 0; p < i; p++)
+			houses[p] = route[p].getStart();
+
+		DS_Path[] tail = spur.search(route[i].getStart(), end, houses, i, paths, pathCount);
+		if(tail == null)
+			return null;
+		DS_Path[] result = Arrays.copyOf(route, i + tail.length);
+		System.arraycopy(tail, 0, result, i, tail.length);
+		return result;
+	}
+
+	/**
+	 * Get the total weight of a route
+	 * @param route paths of the route
+	 * @return the weight
+	 */
+	private static int weight(DS_Path[] route)
+	{
+		int total = 0;
+		for(DS_Path path : route)
+			total += path.getWeight();
+		return total;
+	}
+
+	/**
+	 * Determine if a list of path IDs holds an ID
+	 * @param paths list of IDs
+	 * @param count number of entries in use
+	 * @param id to look for
+	 * @return true if it does, false otherwise
+	 */
+	private static boolean contains(int[] paths, int count, int id)
+	{
+		for(int i = 0; i < count; i++)
+			if(paths[i] == id) return true;
+		return false;
+	}
+
+}
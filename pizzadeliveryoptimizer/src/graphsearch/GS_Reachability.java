@@ -0,0 +1,292 @@
+package graphsearch;
+
+import java.util.Arrays;
+
+import datastructures.DS_House;
+import datastructures.DS_Path;
+import errors.EX_Exception;
+import errors.EX_Exception.ErrorType;
+import filesystem.FS_Listener;
+import filesystem.PA_FileSystem;
+
+public class GS_Reachability implements FS_Listener
+{
+
+	// Map whose connectivity is indexed
+	private final PA_FileSystem filesystem;
+
+	// Whether the strongly connected components, and the houses reached from the depots, still match the map
+	private boolean componentsValid, reachedValid;
+
+	// Strongly connected component of every house, indexed by house ID (-1 for IDs without a house)
+	private int[] component;
+
+	// Number of components (component numbers range from 0 to count - 1)
+	private int count;
+
+	// Whether every house can be reached from a depot, indexed by house ID
+	private boolean[] reached;
+
+	/**
+	 * Reachability index class constructor (the index is built on the first query)
+	 * @param fs to use with this object
+	 */
+	public GS_Reachability(PA_FileSystem fs)
+	{
+		this.filesystem = fs;
+		this.componentsValid = false;
+		this.reachedValid = false;
+		this.component = new int[0];
+		this.reached = new boolean[0];
+		fs.addListener(this);
+	}
+
+	/**
+	 * Determine if a house can be reached from any depot (constant time once the index is up to date)
+	 * @param house to look up
+	 * @return true if it can, false otherwise
+	 */
+	public boolean isReachable(DS_House house)
+	{
+		this.updateReached();
+		return house.getID() < this.reached.length && this.reached[house.getID()];
+	}
+
+	/**
+	 * Determine if two houses can each be reached from the other
+	 * @param a first house
+	 * @param b second house
+	 * @return true if they are in the same strongly connected component, false otherwise (always for removed houses)
+	 * @throws EX_Exception
+	 */
+	public boolean isStronglyConnected(DS_House a, DS_House b) throws EX_Exception
+	{
+		int component = this.getComponent(a);
+		return component != -1 && component == this.getComponent(b);
+	}
+
+	/**
+	 * Get the strongly connected component of a house
+	 * @param house to look up
+	 * @return the component number (-1 for a removed house)
+	 * @throws EX_Exception
+	 */
+	public int getComponent(DS_House house) throws EX_Exception
+	{
+		this.updateComponents();
+		return (house.getID() < this.component.length) ? this.component[house.getID()] : -1;
+	}
+
+	/**
+	 * Get the number of strongly connected components of the map
+	 * @return the number of components
+	 * @throws EX_Exception
+	 */
+	public int getComponentCount() throws EX_Exception
+	{
+		this.updateComponents();
+		return this.count;
+	}
+
+	/**
+	 * Find the strongly connected components again if an edit may have merged or split some (Tarjan)
+	 * (iterative, so long chains of houses can't overflow the call stack)
+	 * @throws EX_Exception
+	 */
+	private void updateComponents() throws EX_Exception
+	{
+		if(this.componentsValid) return;
+		try {
+			GS_Graph graph = GS_Graph.get(this.filesystem);
+			int[] offsets = graph.getOffsets(), targets = graph.getTargets();
+			int n = graph.getHouseCount();
+
+			int[] index = new int[n], low = new int[n];
+			boolean[] onStack = new boolean[n];
+			int[] stack = new int[n];
+			int[] frames = new int[n];
+			// Next path of every open house to walk (an entry of the snapshot's target array)
+			int[] cursor = new int[n];
+			this.component = new int[n];
+			Arrays.fill(this.component, -1);
+			this.count = 0;
+			int visited = 0, top = 0;
+
+			for(int root = 0; root < n; root++) {
+				if(graph.getHouse(root) == null || index[root] != 0) continue;
+				int depth = 0;
+				frames[depth++] = root;
+				index[root] = low[root] = ++visited;
+				stack[top++] = root;
+				onStack[root] = true;
+				cursor[root] = offsets[root];
+				while(depth > 0) {
+					int v = frames[depth - 1];
+					if(cursor[v] < offsets[v + 1]) {
+						int w = targets[cursor[v]++];
+						if(index[w] == 0) {
+							// Descend into the house, its paths are walked before the parent's next path
+							index[w] = low[w] = ++visited;
+							stack[top++] = w;
+							onStack[w] = true;
+							cursor[w] = offsets[w];
+							frames[depth++] = w;
+						} else if(onStack[w]) {
+							low[v] = Math.min(low[v], index[w]);
+						}
+						continue;
+					}
+
+					// Every path of the house was walked, close it and hand its low link to its parent
+					depth--;
+					if(low[v] == index[v]) {
+						int w;
+						do {
+							w = stack[--top];
+							onStack[w] = false;
+							this.component[w] = this.count;
+						} while(w != v);
+						this.count++;
+					}
+					if(depth > 0) {
+						int parent = frames[depth - 1];
+						low[parent] = Math.min(low[parent], low[v]);
+					}
+				}
+			}
+			this.componentsValid = true;
+		} catch(Exception exception) {
+			throw new EX_Exception(exception.getMessage(), ErrorType.ERROR_GRAPHSEARCHING);
+		}
+	}
+
+	/**
+	 * Find the houses reached from the depots again if an edit may have cut some off
+	 */
+	private void updateReached()
+	{
+		if(this.reachedValid) return;
+		this.reached = new boolean[this.filesystem.getNumHouses()];
+		for(DS_House depot : this.filesystem.getDepots())
+			this.reach(depot);
+		this.reachedValid = true;
+	}
+
+	/**
+	 * Mark every house reached from a house that wasn't reached yet (depth first)
+	 * @param start house
+	 */
+	private void reach(DS_House start)
+	{
+		if(this.reached[start.getID()]) return;
+		DS_House[] stack = new DS_House[16];
+		int top = 0;
+		stack[top++] = start;
+		this.reached[start.getID()] = true;
+		while(top > 0) {
+			DS_House house = stack[--top];
+			for(DS_Path path : house.getPaths()) {
+				DS_House next = path.getEnd();
+				if(this.reached[next.getID()]) continue;
+				this.reached[next.getID()] = true;
+				if(top == stack.length) stack = Arrays.copyOf(stack, top * 2);
+				stack[top++] = next;
+			}
+		}
+	}
+
+	/**
+	 * Give a new house its own component (no path leads to it or leaves it yet)
+	 * @param house that was added
+	 */
+	public void houseAdded(DS_House house)
+	{
+		int n = this.filesystem.getNumHouses();
+		if(this.reachedValid && this.reached.length < n)
+			this.reached = Arrays.copyOf(this.reached, n);
+		if(this.componentsValid) {
+			if(this.component.length < n) {
+				int length = this.component.length;
+				this.component = Arrays.copyOf(this.component, n);
+				Arrays.fill(this.component, length, n, -1);
+			}
+			this.component[house.getID()] = this.count++;
+		}
+	}
+
+	/**
+	 * Forget a removed house, and number the components again later so the numbers stay consecutive
+	 * (its paths have already been handled, so it took a component of its own with it)
+	 * @param house that was removed
+	 */
+	public void houseRemoved(DS_House house)
+	{
+		this.componentsValid = false;
+		if(this.reachedValid)
+			this.reached[house.getID()] = false;
+	}
+
+	/**
+	 * House details do not affect the index
+	 * @param house that was changed
+	 */
+	public void houseChanged(DS_House house)
+	{
+		//
+	}
+
+	/**
+	 * Mark the houses the new path leads to as reached, and rebuild the components later if it may merge some
+	 * @param path that was added
+	 */
+	public void pathAdded(DS_Path path)
+	{
+		if(this.componentsValid && this.component[path.getStart().getID()] != this.component[path.getEnd().getID()])
+			this.componentsValid = false;
+		if(this.reachedValid && this.reached[path.getStart().getID()])
+			this.reach(path.getEnd());
+	}
+
+	/**
+	 * Rebuild the parts of the index the removed path may have split later
+	 * @param path that was removed
+	 */
+	public void pathRemoved(DS_Path path)
+	{
+		// A path between two components doesn't hold any component together
+		if(this.componentsValid && this.component[path.getStart().getID()] == this.component[path.getEnd().getID()])
+			this.componentsValid = false;
+		// A path leaving an unreached house never reached anything
+		if(this.reachedValid && this.reached[path.getStart().getID()])
+			this.reachedValid = false;
+	}
+
+	/**
+	 * Path weights do not affect the index
+	 * @param path that was changed
+	 * @param oldWeight of the path before the change
+	 */
+	public void pathWeightChanged(DS_Path path, int oldWeight)
+	{
+		//
+	}
+
+	/**
+	 * Mark the houses the new depot leads to as reached
+	 * @param house that became a depot
+	 */
+	public void depotAdded(DS_House house)
+	{
+		if(this.reachedValid) this.reach(house);
+	}
+
+	/**
+	 * Find the houses reached from the depots again later
+	 * @param house that was a depot
+	 */
+	public void depotRemoved(DS_House house)
+	{
+		this.reachedValid = false;
+	}
+
+}
@@ -0,0 +1,137 @@
+package graphsearch;
+
+import datastructures.DS_GenericList;
+import datastructures.DS_House;
+import datastructures.DS_Path;
+
+public final class GS_Route
+{
+
+	// Paths of the route in travelling order
+	private final DS_Path[] paths;
+
+	// Houses the route starts and ends at
+	private final DS_House start, end;
+
+	// Total time needed to travel the route
+	private final int distance;
+
+	// Number of houses settled by the search that found the route
+	private final int settled;
+
+	/**
+	 * Route constructor
+	 * @param start house of the route
+	 * @param end house of the route
+	 * @param paths of the route in travelling order (copied)
+	 * @param settled number of houses settled by the search
+	 */
+	public GS_Route(DS_House start, DS_House end, DS_Path[] paths, int settled)
+	{
+		this.start = start;
+		this.end = end;
+		this.paths = paths.clone();
+		int distance = 0;
+		for(DS_Path path : this.paths)
+			distance += path.getWeight();
+		this.distance = distance;
+		this.settled = settled;
+	}
+
+	/**
+	 * Route constructor for routes whose time doesn't add up from the path weights (time-dependent searches)
+	 * @param start house of the route
+	 * @param end house of the route
+	 * @param paths of the route in travelling order (copied)
+	 * @param distance total time needed to travel the route
+	 * @param settled number of houses settled by the search
+	 */
+	public GS_Route(DS_House start, DS_House end, DS_Path[] paths, int distance, int settled)
+	{
+		this.start = start;
+		this.end = end;
+		this.paths = paths.clone();
+		this.distance = distance;
+		this.settled = settled;
+	}
+
+	/**
+	 * Get the house the route starts at
+	 * @return the start house
+	 */
+	public DS_House getStart()
+	{
+		return this.start;
+	}
+
+	/**
+	 * Get the house the route ends at
+	 * @return the end house
+	 */
+	public DS_House getEnd()
+	{
+		return this.end;
+	}
+
+	/**
+	 * Get the total time needed to travel the route (weights at the time it was found)
+	 * @return the distance
+	 */
+	public int getDistance()
+	{
+		return this.distance;
+	}
+
+	/**
+	 * Get the number of houses settled by the search that found the route
+	 * @return the number of settled houses
+	 */
+	public int getSettledCount()
+	{
+		return this.settled;
+	}
+
+	/**
+	 * Get the number of paths in the route
+	 * @return the number of paths
+	 */
+	public int size()
+	{
+		return this.paths.length;
+	}
+
+	/**
+	 * Get a path of the route
+	 * @param index of the path in travelling order
+	 * @return the path
+	 */
+	public DS_Path getPath(int index)
+	{
+		return this.paths[index];
+	}
+
+	/**
+	 * Get the paths of the route
+	 * @return a new list with the paths in travelling order
+	 */
+	public DS_GenericList<DS_Path> getPaths()
+	{
+		DS_GenericList<DS_Path> result = new DS_GenericList<DS_Path>();
+		for(DS_Path path : this.paths)
+			result.add(path);
+		return result;
+	}
+
+	/**
+	 * Determine if a path is part of the route
+	 * @param path to look for
+	 * @return true if it is, false otherwise
+	 */
+	public boolean contains(DS_Path path)
+	{
+		for(DS_Path p : this.paths)
+			if(p == path) return true;
+		return false;
+	}
+
+}
@@ -0,0 +1,70 @@
+package graphsearch;
+
+import datastructures.DS_House;
+import errors.EX_Exception;
+import errors.EX_Exception.ErrorType;
+import filesystem.PA_FileSystem;
+
+public class GS_RoutingService
+{
+
+	// Map to compute the routes on (read only while queries are running)
+	private final PA_FileSystem filesystem;
+
+	// Search engine of every calling thread (an engine owns its search context, so it is never shared)
+	private final ThreadLocal<GS_Dijkstra> engines;
+
+	/**
+	 * Routing service constructor
+	 * (the map must not be edited while queries are running, the searches only read it)
+	 * @param fs to use with this object
+	 */
+	public GS_RoutingService(final PA_FileSystem fs)
+	{
+		this.filesystem = fs;
+		this.engines = new ThreadLocal<GS_Dijkstra>() {
+			protected GS_Dijkstra initialValue()
+			{
+				return new GS_Dijkstra(fs, null);
+			}
+		};
+	}
+
+	/**
+	 * Get the shortest route between two houses (can be called from many threads at once)
+	 * @param startId ID of the start house
+	 * @param endId ID of the end house
+	 * @return the route, which can be freely shared between threads
+	 * @throws EX_Exception
+	 */
+	public GS_Route route(int startId, int endId) throws EX_Exception
+	{
+		DS_House start = this.getHouse(startId);
+		DS_House end = this.getHouse(endId);
+		return this.engines.get().search(start, end);
+	}
+
+	/**
+	 * Get the file system the routes are computed on
+	 * @return the file system
+	 */
+	public PA_FileSystem getFileSystem()
+	{
+		return this.filesystem;
+	}
+
+	/**
+	 * Look up a house of the map
+	 * @param id of the house
+	 * @return the house
+	 * @throws EX_Exception if no house has this ID
+	 */
+	protected DS_House getHouse(int id) throws EX_Exception
+	{
+		DS_House house = this.filesystem.getHouseByID(id);
+		if(house == null)
+			throw new EX_Exception("No house with ID " + id, ErrorType.ERROR_GRAPHSEARCHING);
+		return house;
+	}
+
+}
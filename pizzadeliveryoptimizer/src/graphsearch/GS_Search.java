@@ -0,0 +1,184 @@
+package graphsearch;
+
+import java.util.Arrays;
+
+import javax.swing.JProgressBar;
+
+import datastructures.DS_House;
+import datastructures.DS_Path;
+import errors.EX_Exception;
+import errors.EX_Exception.ErrorType;
+import filesystem.PA_FileSystem;
+
+public abstract class GS_Search
+{
+
+	// Graph searching engines that can be created by name
+	public static enum Engine { DIJKSTRA, DIAL, ASTAR, BIDIRECTIONAL, ALT, CONTRACTION_HIERARCHY, SHORTEST_PATH_TREE }
+
+	// Local copy of the file system object to use during the graph searching process
+	protected PA_FileSystem filesystem;
+
+	// Local copy of the progress bar to inform the user on the graph searching process (may be null)
+	protected JProgressBar progressbar;
+
+	// Number of houses settled during the last search
+	protected int settled;
+
+	// Snapshot of the map used by the last search (volatile, the spur searches of some engines share it between threads)
+	private volatile GS_Graph graph;
+
+	/**
+	 * Graph searching class constructor
+	 * @param fs to use with this object
+	 * @param progressbar object to report the progress of current operations (null for none)
+	 */
+	public GS_Search(PA_FileSystem fs, JProgressBar progressbar)
+	{
+		this.progressbar = progressbar;
+		this.filesystem = fs;
+		this.settled = 0;
+	}
+
+	/**
+	 * Create a graph searching engine
+	 * @param engine type of engine to create
+	 * @param fs to use with the engine
+	 * @param progressbar object to report the progress of current operations (null for none)
+	 * @return the engine
+	 * @throws EX_Exception
+	 */
+	public static GS_Search create(Engine engine, PA_FileSystem fs, JProgressBar progressbar) throws EX_Exception
+	{
+		switch(engine)
+		{
+		case DIAL:
+			{
+				return new GS_Dial(fs, progressbar);
+			}
+		case ASTAR:
+			{
+				return new GS_AStar(fs, progressbar);
+			}
+		case BIDIRECTIONAL:
+			{
+				return new GS_BiDijkstra(fs, progressbar);
+			}
+		case ALT:
+			{
+				return new GS_ALT(fs, progressbar);
+			}
+		case CONTRACTION_HIERARCHY:
+			{
+				return new GS_CHSearch(fs, progressbar);
+			}
+		case SHORTEST_PATH_TREE:
+			{
+				return new GS_ShortestPathTree(fs, progressbar);
+			}
+		default:
+			{
+				return new GS_Dijkstra(fs, progressbar);
+			}
+		}
+	}
+
+	/**
+	 * Start the graph searching process and link up the two requested houses
+	 * @param start house
+	 * @param end house
+	 * @return the shortest route from the start house to the end house
+	 * @throws EX_Exception
+	 */
+	public abstract GS_Route search(DS_House start, DS_House end) throws EX_Exception;
+
+	/**
+	 * Get the number of houses settled during the last search
+	 * @return the number of settled houses
+	 */
+	public int getSettledCount()
+	{
+		return this.settled;
+	}
+
+	/**
+	 * Reset the progress bar before a search over the whole map
+	 */
+	protected void progressStart()
+	{
+		if(this.progressbar == null) return;
+		this.progressbar.setMaximum(this.filesystem.getNumHouses());
+		this.progressbar.setValue(0);
+	}
+
+	/**
+	 * Set the progress bar's value to 1 more than it is currently at
+	 */
+	protected void progressStep()
+	{
+		if(this.progressbar == null) return;
+		this.progressbar.setValue(this.progressbar.getValue() + 1);
+	}
+
+	/**
+	 * Fill the progress bar once a search is over
+	 */
+	protected void progressEnd()
+	{
+		if(this.progressbar == null) return;
+		this.progressbar.setValue(this.progressbar.getMaximum());
+	}
+
+	/**
+	 * Get an up to date snapshot of the map (the shared snapshot store is only locked when the map was edited)
+	 * @return the snapshot
+	 */
+	protected GS_Graph getGraph()
+	{
+		GS_Graph graph = this.graph;
+		if(graph == null || graph.getRevision() != this.filesystem.getRevision()) {
+			graph = GS_Graph.get(this.filesystem);
+			this.graph = graph;
+		}
+		return graph;
+	}
+
+	/**
+	 * Build the route leading from the start house to the end house
+	 * (follows the predecessor path IDs left in the context by a forward search)
+	 * @param context of the search
+	 * @param graph snapshot the search was run on
+	 * @param start house
+	 * @param end house
+	 * @return the route
+	 * @throws EX_Exception if the end house could not be reached
+	 */
+	protected GS_Route buildRoute(GS_SearchContext context, GS_Graph graph, DS_House start, DS_House end) throws EX_Exception
+	{
+		if(!context.isReached(end.getID()))
+			throw new EX_Exception(1, ErrorType.ERROR_GRAPHSEARCHING);
+
+		DS_Path[] route = new DS_Path[16];
+		int length = 0;
+		for(DS_House house = end; house != start; house = route[length - 1].getStart()) {
+			if(length == route.length) route = Arrays.copyOf(route, length * 2);
+			route[length++] = graph.getPath(context.getPredecessor(house.getID()));
+		}
+		return new GS_Route(start, end, this.reverse(route, length), this.settled);
+	}
+
+	/**
+	 * Reverse the first entries of an array of paths (routes are collected from the end house backwards)
+	 * @param paths to reverse
+	 * @param length number of entries in use
+	 * @return a new array holding the entries in reverse order
+	 */
+	protected DS_Path[] reverse(DS_Path[] paths, int length)
+	{
+		DS_Path[] result = new DS_Path[length];
+		for(int i = 0; i < length; i++)
+			result[i] = paths[length - 1 - i];
+		return result;
+	}
+
+}
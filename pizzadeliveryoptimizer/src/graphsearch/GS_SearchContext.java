@@ -0,0 +1,134 @@
+package graphsearch;
+
+import java.util.Arrays;
+
+import datastructures.DS_House;
+import datastructures.DS_IndexedHeap;
+
+public class GS_SearchContext
+{
+
+	// Distance of every house from the search's source, indexed by house ID
+	private int[] distance;
+
+	// Edge used to reach every house (path ID, or engine specific edge index), indexed by house ID
+	private int[] predecessor;
+
+	// Search generation that last touched every house (generation: reached, generation + 1: settled)
+	private int[] stamp;
+
+	// Current search generation (always even, older stamps are smaller)
+	private int generation;
+
+	// Priority queue of the houses waiting to be settled
+	private DS_IndexedHeap<DS_House> queue;
+
+	/**
+	 * Search context constructor
+	 * @param capacity number of house IDs the context can hold
+	 */
+	public GS_SearchContext(int capacity)
+	{
+		this.distance = new int[capacity];
+		this.predecessor = new int[capacity];
+		this.stamp = new int[capacity];
+		this.generation = 2;
+		this.queue = new DS_IndexedHeap<DS_House>(capacity);
+	}
+
+	/**
+	 * Forget the previous search (in constant time, unless the context has to grow)
+	 * @param capacity number of house IDs the next search needs
+	 */
+	public void reset(int capacity)
+	{
+		if(this.stamp.length < capacity) {
+			int length = Math.max(capacity, this.stamp.length * 2);
+			this.distance = Arrays.copyOf(this.distance, length);
+			this.predecessor = Arrays.copyOf(this.predecessor, length);
+			this.stamp = Arrays.copyOf(this.stamp, length);
+		}
+		this.queue.clear();
+		this.queue.ensureCapacity(capacity);
+
+		this.generation += 2;
+		if(this.generation < 0) {
+			// The generation counter wrapped around, old stamps could look current again
+			Arrays.fill(this.stamp, 0);
+			this.generation = 2;
+		}
+	}
+
+	/**
+	 * Get the priority queue of this context
+	 * @return the queue (emptied by reset)
+	 */
+	public DS_IndexedHeap<DS_House> getQueue()
+	{
+		return this.queue;
+	}
+
+	/**
+	 * Determine if a house has been reached by the current search
+	 * @param id of the house
+	 * @return true if it has a distance, false otherwise
+	 */
+	public boolean isReached(int id)
+	{
+		return id < this.stamp.length && this.stamp[id] >= this.generation;
+	}
+
+	/**
+	 * Determine if a house has been settled by the current search (its distance is final)
+	 * @param id of the house
+	 * @return true if it is settled, false otherwise
+	 */
+	public boolean isSettled(int id)
+	{
+		return id < this.stamp.length && this.stamp[id] == this.generation + 1;
+	}
+
+	/**
+	 * Get the distance of a house
+	 * @param id of the house
+	 * @return the distance (-1 if the house has not been reached)
+	 */
+	public int getDistance(int id)
+	{
+		return this.isReached(id) ? this.distance[id] : -1;
+	}
+
+	/**
+	 * Get the edge used to reach a house
+	 * @param id of the house
+	 * @return the edge (-1 for the source or a house that has not been reached)
+	 */
+	public int getPredecessor(int id)
+	{
+		return this.isReached(id) ? this.predecessor[id] : -1;
+	}
+
+	/**
+	 * Set the distance of a house and the edge it was reached by
+	 * @param id of the house
+	 * @param distance from the source
+	 * @param edge used to reach it (-1 for the source)
+	 */
+	public void setDistance(int id, int distance, int edge)
+	{
+		this.distance[id] = distance;
+		this.predecessor[id] = edge;
+		if(this.stamp[id] < this.generation)
+			this.stamp[id] = this.generation;
+	}
+
+	/**
+	 * Mark a reached house as settled
+	 * @param id of the house
+	 */
+	public void setSettled(int id)
+	{
+		this.stamp[id] = this.generation + 1;
+	}
+
+}
@@ -0,0 +1,319 @@
+package graphsearch;
+
+import java.util.Arrays;
+
+import javax.swing.JProgressBar;
+
+import datastructures.DS_GenericList;
+import datastructures.DS_House;
+import datastructures.DS_IndexedHeap;
+import datastructures.DS_Path;
+import errors.EX_Exception;
+import errors.EX_Exception.ErrorType;
+import filesystem.FS_Listener;
+import filesystem.PA_FileSystem;
+
+public class GS_ShortestPathTree extends GS_Search implements FS_Listener
+{
+
+	// House the tree grows from (null until the first search)
+	private DS_House root;
+
+	// Whether the cached tree still matches the map
+	private boolean valid;
+
+	// Distance from the root to every house, indexed by house ID (-1 if unreachable)
+	private int[] distance;
+
+	// Path used to reach every house from the root, indexed by house ID (null for the root and unreachable houses)
+	private DS_Path[] parent;
+
+	// Priority queue used to grow and repair the tree
+	private DS_IndexedHeap<DS_House> queue;
+
+	// Houses cut off from the tree by the current repair (stamp equal to the current generation)
+	private int[] affected;
+	private int generation;
+
+	/**
+	 * Shortest path tree class constructor
+	 * @param fs to use with this object
+	 * @param progressbar object to report the progress of current operations
+	 */
+	public GS_ShortestPathTree(PA_FileSystem fs, JProgressBar progressbar)
+	{
+		super(fs, progressbar);
+		this.root = null;
+		this.valid = false;
+		this.distance = new int[0];
+		this.parent = new DS_Path[0];
+		this.affected = new int[0];
+		this.generation = 0;
+		this.queue = new DS_IndexedHeap<DS_House>(fs.getNumHouses());
+		fs.addListener(this);
+	}
+
+	/**
+	 * Link up the two requested houses using the cached tree of the start house
+	 * (the tree is only grown again if the start house changed, edits are repaired in place)
+	 * @param start house
+	 * @param end house
+	 * @return the shortest route
+	 * @throws EX_Exception
+	 */
+	public GS_Route search(DS_House start, DS_House end) throws EX_Exception
+	{
+		this.progressStart();
+		this.settled = 0;
+		if(this.valid == false || this.root != start)
+			this.compute(start);
+
+		if(end.getID() >= this.distance.length || this.distance[end.getID()] == -1)
+			throw new EX_Exception(1, ErrorType.ERROR_GRAPHSEARCHING);
+		DS_Path[] route = new DS_Path[16];
+		int length = 0;
+		for(DS_Path path = this.parent[end.getID()]; path != null; path = this.parent[path.getStart().getID()]) {
+			if(length == route.length) route = Arrays.copyOf(route, length * 2);
+			route[length++] = path;
+		}
+		this.progressEnd();
+		return new GS_Route(start, end, this.reverse(route, length), this.settled);
+	}
+
+	/**
+	 * Get the distance from the root of the tree to a house
+	 * @param house to look up
+	 * @return the distance (-1 if unreachable or if the tree is out of date)
+	 */
+	public int getDistance(DS_House house)
+	{
+		if(this.valid == false || house.getID() >= this.distance.length)
+			return -1;
+		return this.distance[house.getID()];
+	}
+
+	/**
+	 * Determine if the cached tree is up to date
+	 * @return true if it is, false otherwise
+	 */
+	public boolean isValid()
+	{
+		return this.valid;
+	}
+
+	/**
+	 * Grow the whole shortest path tree from a house (Dijkstra)
+	 * @param start house to use as the root
+	 * @throws EX_Exception
+	 */
+	private void compute(DS_House start) throws EX_Exception
+	{
+		try {
+			this.ensureCapacity();
+			Arrays.fill(this.distance, -1);
+			Arrays.fill(this.parent, null);
+			this.queue.clear();
+
+			this.root = start;
+			this.distance[start.getID()] = 0;
+			this.queue.update(start.getID(), start, 0);
+			this.propagate(false);
+			this.valid = true;
+		} catch(Exception exception) {
+			throw new EX_Exception(exception.getMessage(), ErrorType.ERROR_GRAPHSEARCHING);
+		}
+	}
+
+	/**
+	 * Make sure the per house arrays can hold every house ID (new entries are unreachable)
+	 */
+	private void ensureCapacity()
+	{
+		int n = this.filesystem.getNumHouses();
+		this.queue.ensureCapacity(n);
+		if(this.distance.length >= n) return;
+		int length = this.distance.length;
+		this.distance = Arrays.copyOf(this.distance, n);
+		this.parent = Arrays.copyOf(this.parent, n);
+		this.affected = Arrays.copyOf(this.affected, n);
+		Arrays.fill(this.distance, length, n, -1);
+	}
+
+	/**
+	 * Settle the queued houses and relax their outgoing paths (Dijkstra)
+	 * @param repair only count the work as part of a repair (no progress report)
+	 */
+	private void propagate(boolean repair)
+	{
+		while(!this.queue.isEmpty()) {
+			DS_House current = this.queue.poll();
+			int d = this.distance[current.getID()];
+			if(!repair) {
+				this.settled++;
+				this.progressStep();
+			}
+			for(DS_Path path : current.getPaths()) {
+				int next = path.getEnd().getID();
+				if(this.distance[next] == -1 || d + path.getWeight() < this.distance[next]) {
+					this.distance[next] = d + path.getWeight();
+					this.parent[next] = path;
+					this.queue.update(next, path.getEnd(), this.distance[next]);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Repair the tree after a path was added or got cheaper
+	 * (only the houses whose distance improves are touched)
+	 * @param path that was added or got cheaper
+	 */
+	private void repairDecrease(DS_Path path)
+	{
+		int u = path.getStart().getID(), v = path.getEnd().getID();
+		if(this.distance[u] == -1)
+			return;
+		int d = this.distance[u] + path.getWeight();
+		if(this.distance[v] != -1 && d >= this.distance[v])
+			return;
+		this.distance[v] = d;
+		this.parent[v] = path;
+		this.queue.clear();
+		this.queue.update(v, path.getEnd(), d);
+		this.propagate(true);
+	}
+
+	/**
+	 * Repair the tree after a tree path was removed or got more expensive (Ramalingam-Reps)
+	 * (only the subtree hanging from the path is recomputed)
+	 * @param path that was removed or got more expensive
+	 */
+	private void repairIncrease(DS_Path path)
+	{
+		int v = path.getEnd().getID();
+		if(this.parent[v] != path)
+			return;
+
+		// Collect the subtree cut off by the path, it has to find new parents
+		this.generation++;
+		DS_GenericList<DS_House> subtree = new DS_GenericList<DS_House>();
+		DS_House[] stack = new DS_House[16];
+		int top = 0;
+		stack[top++] = path.getEnd();
+		this.affected[v] = this.generation;
+		while(top > 0) {
+			DS_House house = stack[--top];
+			subtree.add(house);
+			for(DS_Path child : house.getPaths()) {
+				int c = child.getEnd().getID();
+				if(this.parent[c] != child || this.affected[c] == this.generation) continue;
+				this.affected[c] = this.generation;
+				if(top == stack.length) stack = Arrays.copyOf(stack, top * 2);
+				stack[top++] = child.getEnd();
+			}
+		}
+		for(DS_House house : subtree) {
+			this.distance[house.getID()] = -1;
+			this.parent[house.getID()] = null;
+		}
+
+		// Seed every cut off house with its best path from the rest of the tree
+		this.queue.clear();
+		for(DS_House house : subtree) {
+			int id = house.getID();
+			for(DS_Path in : house.getIncomingPaths()) {
+				int u = in.getStart().getID();
+				if(this.affected[u] == this.generation || this.distance[u] == -1) continue;
+				int d = this.distance[u] + in.getWeight();
+				if(this.distance[id] == -1 || d < this.distance[id]) {
+					this.distance[id] = d;
+					this.parent[id] = in;
+				}
+			}
+			if(this.distance[id] != -1)
+				this.queue.update(id, house, this.distance[id]);
+		}
+		this.propagate(true);
+	}
+
+	/**
+	 * Make room for a new house (unreachable until a path leads to it)
+	 * @param house that was added
+	 */
+	public void houseAdded(DS_House house)
+	{
+		if(this.valid) this.ensureCapacity();
+	}
+
+	/**
+	 * Invalidate the tree if its root was removed (the paths have already been handled)
+	 * @param house that was removed
+	 */
+	public void houseRemoved(DS_House house)
+	{
+		if(house == this.root)
+			this.valid = false;
+	}
+
+	/**
+	 * House details do not affect the tree
+	 * @param house that was changed
+	 */
+	public void houseChanged(DS_House house)
+	{
+		//
+	}
+
+	/**
+	 * Repair the tree if the new path offers a shorter route
+	 * @param path that was added
+	 */
+	public void pathAdded(DS_Path path)
+	{
+		if(this.valid == false) return;
+		this.ensureCapacity();
+		this.repairDecrease(path);
+	}
+
+	/**
+	 * Repair the tree if the removed path was part of it
+	 * @param path that was removed
+	 */
+	public void pathRemoved(DS_Path path)
+	{
+		if(this.valid) this.repairIncrease(path);
+	}
+
+	/**
+	 * Repair the part of the tree affected by the weight change
+	 * @param path that was changed
+	 * @param oldWeight of the path before the change
+	 */
+	public void pathWeightChanged(DS_Path path, int oldWeight)
+	{
+		if(this.valid == false) return;
+		if(path.getWeight() < oldWeight)
+			this.repairDecrease(path);
+		else
+			this.repairIncrease(path);
+	}
+
+	/**
+	 * Depots do not affect the tree
+	 * @param house that became a depot
+	 */
+	public void depotAdded(DS_House house)
+	{
+		//
+	}
+
+	/**
+	 * Depots do not affect the tree
+	 * @param house that was a depot
+	 */
+	public void depotRemoved(DS_House house)
+	{
+		//
+	}
+
+}
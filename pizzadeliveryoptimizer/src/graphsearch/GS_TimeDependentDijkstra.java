@@ -0,0 +1,119 @@
+package graphsearch;
+
+import java.util.Calendar;
+
+import javax.swing.JProgressBar;
+
+import datastructures.DS_House;
+import datastructures.DS_IndexedHeap;
+import datastructures.DS_Path;
+import datastructures.DS_Profile;
+import errors.EX_Exception;
+import errors.EX_Exception.ErrorType;
+import filesystem.PA_FileSystem;
+
+public class GS_TimeDependentDijkstra extends GS_Search
+{
+
+	// Per query search state (distances are times elapsed since the departure)
+	private GS_SearchContext context;
+
+	// Departure time used by search(start, end) (minutes since midnight)
+	private int departure;
+
+	/**
+	 * Time-dependent Dijkstra graph searching class constructor (departs at the current time of day)
+	 * @param fs to use with this object
+	 * @param progressbar object to report the progress of current operations
+	 */
+	public GS_TimeDependentDijkstra(PA_FileSystem fs, JProgressBar progressbar)
+	{
+		super(fs, progressbar);
+		this.context = new GS_SearchContext(fs.getNumHouses());
+		Calendar now = Calendar.getInstance();
+		this.departure = now.get(Calendar.HOUR_OF_DAY) * 60 + now.get(Calendar.MINUTE);
+	}
+
+	/**
+	 * Get the departure time used by search(start, end)
+	 * @return the departure time (minutes since midnight)
+	 */
+	public int getDeparture()
+	{
+		return this.departure;
+	}
+
+	/**
+	 * Set the departure time used by search(start, end)
+	 * @param departure time (minutes since midnight)
+	 */
+	public void setDeparture(int departure)
+	{
+		this.departure = ((departure % DS_Profile.DAY) + DS_Profile.DAY) % DS_Profile.DAY;
+	}
+
+	/**
+	 * Start the graph searching process and link up the two requested houses (leaving at the departure time)
+	 * @param start house
+	 * @param end house
+	 * @return the fastest route
+	 * @throws EX_Exception
+	 */
+	public GS_Route search(DS_House start, DS_House end) throws EX_Exception
+	{
+		return this.search(start, end, this.departure);
+	}
+
+	/**
+	 * Find the fastest route between two houses when leaving at a given time
+	 * (every path is taken at the time the search reaches its start, waiting there if a later slot is quicker,
+	 * so reaching a house later never means arriving sooner and the route is the fastest one)
+	 * @param start house
+	 * @param end house
+	 * @param departure time (minutes since midnight)
+	 * @return the fastest route, its distance being the travel time
+	 * @throws EX_Exception
+	 */
+	public GS_Route search(DS_House start, DS_House end, int departure) throws EX_Exception
+	{
+		this.progressStart();
+		try {
+			GS_SearchContext context = this.context;
+			DS_IndexedHeap<DS_House> queue = context.getQueue();
+			this.settled = 0;
+			context.reset(this.filesystem.getNumHouses());
+			context.setDistance(start.getID(), 0, -1);
+			queue.update(start.getID(), start, 0);
+			while(!queue.isEmpty()) {
+				DS_House current = queue.poll();
+				int id = current.getID();
+				context.setSettled(id);
+				this.settled++;
+				this.progressStep();
+				if(current == end) break;
+				int elapsed = context.getDistance(id);
+				for(DS_Path path : current.getPaths()) {
+					DS_House next = path.getEnd();
+					int nid = next.getID();
+					if(context.isSettled(nid)) continue;
+					int distance = elapsed + path.getWeight(departure + elapsed);
+					if(!context.isReached(nid) || distance < context.getDistance(nid)) {
+						context.setDistance(nid, distance, path.getID());
+						queue.update(nid, next, distance);
+					}
+				}
+			}
+		} catch(Exception exception) {
+			throw new EX_Exception(exception.getMessage(), ErrorType.ERROR_GRAPHSEARCHING);
+		}
+
+		// The route's paths come from the context, its distance is the travel time (waiting included) rather than the sum of the weights
+		GS_Route route = this.buildRoute(this.context, this.getGraph(), start, end);
+		DS_Path[] paths = new DS_Path[route.size()];
+		for(int i = 0; i < paths.length; i++)
+			paths[i] = route.getPath(i);
+		this.progressEnd();
+		return new GS_Route(start, end, paths, this.context.getDistance(end.getID()), this.settled);
+	}
+
+}
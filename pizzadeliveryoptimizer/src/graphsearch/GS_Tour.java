@@ -0,0 +1,120 @@
+package graphsearch;
+
+import datastructures.DS_GenericList;
+import datastructures.DS_House;
+import datastructures.DS_Path;
+
+public final class GS_Tour
+{
+
+	// Houses the tour starts and ends at
+	private final DS_House depot;
+
+	// Stops of the tour in visiting order (the depot is not included)
+	private final DS_House[] stops;
+
+	// Routes between consecutive houses of the tour (depot to first stop, ..., last stop to depot)
+	private final GS_Route[] legs;
+
+	// Total time needed to travel the tour
+	private final int duration;
+
+	/**
+	 * Tour constructor
+	 * @param depot house the tour starts and ends at
+	 * @param stops in visiting order (copied)
+	 * @param legs routes between consecutive houses of the tour (copied)
+	 */
+	public GS_Tour(DS_House depot, DS_House[] stops, GS_Route[] legs)
+	{
+		this.depot = depot;
+		this.stops = stops.clone();
+		this.legs = legs.clone();
+		int duration = 0;
+		for(GS_Route leg : this.legs)
+			duration += leg.getDistance();
+		this.duration = duration;
+	}
+
+	/**
+	 * Get the house the tour starts and ends at
+	 * @return the depot house
+	 */
+	public DS_House getDepot()
+	{
+		return this.depot;
+	}
+
+	/**
+	 * Get the number of stops of the tour
+	 * @return the number of stops
+	 */
+	public int getStopCount()
+	{
+		return this.stops.length;
+	}
+
+	/**
+	 * Get a stop of the tour
+	 * @param index of the stop in visiting order
+	 * @return the house
+	 */
+	public DS_House getStop(int index)
+	{
+		return this.stops[index];
+	}
+
+	/**
+	 * Get the number of legs of the tour (one more than the number of stops)
+	 * @return the number of legs
+	 */
+	public int getLegCount()
+	{
+		return this.legs.length;
+	}
+
+	/**
+	 * Get a leg of the tour
+	 * @param index of the leg in travelling order
+	 * @return the route of the leg
+	 */
+	public GS_Route getLeg(int index)
+	{
+		return this.legs[index];
+	}
+
+	/**
+	 * Get the total time needed to travel the tour
+	 * @return the duration
+	 */
+	public int getDuration()
+	{
+		return this.duration;
+	}
+
+	/**
+	 * Get the paths of the whole tour
+	 * @return a new list with the paths in travelling order
+	 */
+	public DS_GenericList<DS_Path> getPaths()
+	{
+		DS_GenericList<DS_Path> result = new DS_GenericList<DS_Path>();
+		for(GS_Route leg : this.legs)
+			for(int i = 0; i < leg.size(); i++)
+				result.add(leg.getPath(i));
+		return result;
+	}
+
+	/**
+	 * Determine if a path is travelled by the tour
+	 * @param path to look for
+	 * @return true if it is, false otherwise
+	 */
+	public boolean contains(DS_Path path)
+	{
+		for(GS_Route leg : this.legs)
+			if(leg.contains(path)) return true;
+		return false;
+	}
+
+}
@@ -0,0 +1,258 @@
+package graphsearch;
+
+import datastructures.DS_House;
+import errors.EX_Exception;
+import errors.EX_Exception.ErrorType;
+import filesystem.PA_FileSystem;
+
+public class GS_TourOptimizer
+{
+
+	// Default time allowed to improve a tour (in milliseconds)
+	public static final long DEFAULT_BUDGET = 200;
+
+	// Longest run of stops moved at once by the Or-opt moves
+	private static final int OR_OPT_LENGTH = 3;
+
+	// Map to plan the tours on
+	private final PA_FileSystem filesystem;
+
+	// Travel times between the stops of a tour
+	private final GS_DistanceMatrix matrix;
+
+	// Search engine used to expand the tour into paths
+	private final GS_Dijkstra engine;
+
+	/**
+	 * Tour optimizer class constructor
+	 * @param fs to use with this object
+	 */
+	public GS_TourOptimizer(PA_FileSystem fs)
+	{
+		this.filesystem = fs;
+		this.matrix = new GS_DistanceMatrix(fs);
+		this.engine = new GS_Dijkstra(fs, null);
+	}
+
+	/**
+	 * Find a short tour leaving the pizzeria, visiting every stop and coming back (default time budget)
+	 * @param stops houses to deliver to
+	 * @return the tour
+	 * @throws EX_Exception
+	 */
+	public GS_Tour optimize(DS_House[] stops) throws EX_Exception
+	{
+		return this.optimize(stops, DEFAULT_BUDGET);
+	}
+
+	/**
+	 * Find a short tour leaving the pizzeria, visiting every stop and coming back
+	 * (nearest neighbour tour improved by 2-opt and Or-opt moves until no move helps or the budget is spent)
+	 * @param stops houses to deliver to (duplicates and the pizzeria itself are skipped)
+	 * @param budget time allowed to improve the tour (in milliseconds)
+	 * @return the tour
+	 * @throws EX_Exception if a stop cannot be reached from the pizzeria or cannot get back to it (ID based, 1)
+	 */
+	public GS_Tour optimize(DS_House[] stops, long budget) throws EX_Exception
+	{
+		long deadline = System.nanoTime() + budget * 1000000L;
+		DS_House depot = this.filesystem.getHouseByID(0);
+
+		// Index 0 is the pizzeria, the distinct stops follow
+		DS_House[] houses = new DS_House[stops.length + 1];
+		houses[0] = depot;
+		int count = 1;
+		for(DS_House stop : stops) {
+			boolean duplicate = false;
+			for(int i = 0; i < count && !duplicate; i++)
+				duplicate = (houses[i].getID() == stop.getID());
+			if(!duplicate) houses[count++] = stop;
+		}
+
+		int[][] cost = this.getCosts(houses, count);
+		int[] tour = nearestNeighbour(cost);
+		improve(tour, cost, deadline);
+
+		DS_House[] order = new DS_House[count - 1];
+		for(int i = 1; i < tour.length - 1; i++)
+			order[i - 1] = houses[tour[i]];
+		return new GS_Tour(depot, order, this.expand(houses, tour));
+	}
+
+	/**
+	 * Compute the travel times between the houses of a tour
+	 * @param houses of the tour (the pizzeria first)
+	 * @param count number of houses in use
+	 * @return matrix of the travel times, indexed by position in houses
+	 * @throws EX_Exception if a house cannot be reached from the pizzeria or cannot get back to it (ID based, 1)
+	 */
+	private int[][] getCosts(DS_House[] houses, int count) throws EX_Exception
+	{
+		int[] ids = new int[count];
+		for(int i = 0; i < count; i++)
+			ids[i] = houses[i].getID();
+		int[] flat = this.matrix.compute(ids, ids);
+
+		int[][] cost = new int[count][count];
+		for(int i = 0; i < count; i++)
+			for(int j = 0; j < count; j++)
+				cost[i][j] = flat[i * count + j];
+		// Going through the pizzeria links any two stops, so only the trips to and from it need checking
+		for(int i = 1; i < count; i++)
+			if(cost[0][i] == -1 || cost[i][0] == -1)
+				throw new EX_Exception(1, ErrorType.ERROR_GRAPHSEARCHING);
+		return cost;
+	}
+
+	/**
+	 * Expand a tour into the routes between its consecutive houses
+	 * @param houses of the tour, indexed by position in the cost matrix
+	 * @param tour visiting order (indices into houses, starting and ending at the pizzeria)
+	 * @return the routes in travelling order
+	 * @throws EX_Exception
+	 */
+	protected GS_Route[] expand(DS_House[] houses, int[] tour) throws EX_Exception
+	{
+		GS_Route[] legs = new GS_Route[tour.length - 1];
+		for(int i = 0; i < legs.length; i++)
+			legs[i] = this.engine.search(houses[tour[i]], houses[tour[i + 1]]);
+		return legs;
+	}
+
+	/**
+	 * Build a tour by always driving to the closest stop not visited yet
+	 * @param cost matrix of the travel times (index 0 is the pizzeria)
+	 * @return the tour, starting and ending at index 0
+	 */
+	static int[] nearestNeighbour(int[][] cost)
+	{
+		int n = cost.length;
+		int[] tour = new int[n + 1];
+		boolean[] visited = new boolean[n];
+		visited[0] = true;
+		for(int i = 1; i < n; i++) {
+			int current = tour[i - 1], best = -1;
+			for(int j = 1; j < n; j++)
+				if(!visited[j] && (best == -1 || cost[current][j] < cost[current][best]))
+					best = j;
+			tour[i] = best;
+			visited[best] = true;
+		}
+		tour[n] = 0;
+		return tour;
+	}
+
+	/**
+	 * Get the total time needed to travel a tour
+	 * @param tour visiting order (indices into the cost matrix)
+	 * @param cost matrix of the travel times
+	 * @return the duration
+	 */
+	static int cost(int[] tour, int[][] cost)
+	{
+		int total = 0;
+		for(int i = 0; i < tour.length - 1; i++)
+			total += cost[tour[i]][tour[i + 1]];
+		return total;
+	}
+
+	/**
+	 * Improve a tour in place until no 2-opt or Or-opt move shortens it or the deadline is reached
+	 * (the first and last entries stay where they are)
+	 * @param tour visiting order (indices into the cost matrix)
+	 * @param cost matrix of the travel times (may be asymmetric)
+	 * @param deadline System.nanoTime() value at which to stop
+	 */
+	static void improve(int[] tour, int[][] cost, long deadline)
+	{
+		while(System.nanoTime() < deadline)
+			if(!twoOpt(tour, cost, deadline) && !orOpt(tour, cost, deadline))
+				break;
+	}
+
+	/**
+	 * Apply the first 2-opt move (reversal of a run of stops) that shortens the tour
+	 * @param tour visiting order (indices into the cost matrix)
+	 * @param cost matrix of the travel times (may be asymmetric)
+	 * @param deadline System.nanoTime() value at which to stop
+	 * @return true if a move was applied, false otherwise
+	 */
+	private static boolean twoOpt(int[] tour, int[][] cost, long deadline)
+	{
+		// Prefix sums of the tour travelled forwards and backwards, reversing a run swaps one for the other
+		int n = tour.length;
+		int[] forward = new int[n], backward = new int[n];
+		for(int p = 1; p < n; p++) {
+			forward[p] = forward[p - 1] + cost[tour[p - 1]][tour[p]];
+			backward[p] = backward[p - 1] + cost[tour[p]][tour[p - 1]];
+		}
+
+		for(int i = 1; i < n - 2; i++) {
+			if(System.nanoTime() >= deadline) return false;
+			int before = tour[i - 1], first = tour[i];
+			for(int j = i + 1; j < n - 1; j++) {
+				int last = tour[j], after = tour[j + 1];
+				int old = cost[before][first] + (forward[j] - forward[i]) + cost[last][after];
+				int now = cost[before][last] + (backward[j] - backward[i]) + cost[first][after];
+				if(now < old) {
+					for(int a = i, b = j; a < b; a++, b--) {
+						int swap = tour[a];
+						tour[a] = tour[b];
+						tour[b] = swap;
+					}
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Apply the first Or-opt move (a run of up to three stops moved elsewhere) that shortens the tour
+	 * @param tour visiting order (indices into the cost matrix)
+	 * @param cost matrix of the travel times (may be asymmetric)
+	 * @param deadline System.nanoTime() value at which to stop
+	 * @return true if a move was applied, false otherwise
+	 */
+	private static boolean orOpt(int[] tour, int[][] cost, long deadline)
+	{
+		int n = tour.length;
+		for(int length = 1; length <= OR_OPT_LENGTH; length++) {
+			for(int i = 1; i + length < n; i++) {
+				if(System.nanoTime() >= deadline) return false;
+				int before = tour[i - 1], first = tour[i], last = tour[i + length - 1], after = tour[i + length];
+				int removed = cost[before][first] + cost[last][after] - cost[before][after];
+				for(int p = 0; p < n - 1; p++) {
+					if(p >= i - 1 && p < i + length) continue;
+					int x = tour[p], y = tour[p + 1];
+					if(cost[x][first] + cost[last][y] - cost[x][y] < removed) {
+						move(tour, i, length, p);
+						return true;
+					}
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Move a run of entries of a tour between two other entries
+	 * @param tour visiting order
+	 * @param start position of the run
+	 * @param length of the run
+	 * @param position of the entry the run is placed after (outside the run)
+	 */
+	private static void move(int[] tour, int start, int length, int position)
+	{
+		int[] run = new int[length];
+		System.arraycopy(tour, start, run, 0, length);
+		if(position < start) {
+			System.arraycopy(tour, position + 1, tour, position + 1 + length, start - position - 1);
+			System.arraycopy(run, 0, tour, position + 1, length);
+		} else {
+			System.arraycopy(tour, start + length, tour, start, position - start - length + 1);
+			System.arraycopy(run, 0, tour, position - length + 1, length);
+		}
+	}
+
+}
@@ -23,7 +23,11 @@ import errors.EX_Exception;
 import errors.EX_Exception.ErrorType;
 import errors.PA_ErrorReporter;
 import filesystem.PA_FileSystem;
-import graphsearch.GS_Dijkstra;
+import graphsearch.GS_DepotAssignment;
+import graphsearch.GS_Reachability;
+import graphsearch.GS_Route;
+import graphsearch.GS_Search;
+import graphsearch.GS_ShortestPathTree;
 
 public class UI_MapEditor extends JFrame implements ActionListener
 {
@@ -55,13 +59,22 @@ public class UI_MapEditor extends JFrame implements ActionListener
 	// File system object to use
 	private PA_FileSystem filesystem;
 
-	// Dijkstra graph searching object
-	private GS_Dijkstra dijkstra;
+	// Graph searching object (caches the shortest path tree of the last depot searched from between clicks)
+	private GS_Search pathfinder;
+
+	// Nearest depot of every house (routes start from the depot nearest to the selected house)
+	private GS_DepotAssignment depots;
+
+	// Houses reachable from the depots (answers unreachable destinations without searching)
+	private GS_Reachability reachability;
+
+	// Route found by the last search (highlighted on the map, null if none)
+	private GS_Route route;
 
 	// Graph object (located on the middle panel)
 	private UI_mxGraph graph;
 
-	// Current set of vertices on the map canvas (for orphan detection)
+	// Current set of vertices on the map canvas, indexed by house ID
 	private Object[] vertices;
 
 	// Temporary variables for path creation
@@ -78,7 +91,10 @@ public class UI_MapEditor extends JFrame implements ActionListener
 	public UI_MapEditor(PA_ErrorReporter reporter)
 	{
 		this.isMoving = true;
-		this.dijkstra = null;
+		this.pathfinder = null;
+		this.depots = null;
+		this.reachability = null;
+		this.route = null;
 		this.filesystem = null;
 		this.startHouse = null;
 		this.isPathCreating = false;
@@ -276,10 +292,10 @@ public class UI_MapEditor extends JFrame implements ActionListener
 				Object parent = this.graph.getDefaultParent();
 				for(DS_House house : this.filesystem.getHouseList())
 					this.vertices[house.getID()] = this.graph.insertVertex(parent, null, house, house.getX(), house.getY(), 95, 35,
-							(house.getID() != 0) ? null : "defaultVertex;fillColor=yellow");
+							this.filesystem.isDepot(house.getID()) ? "defaultVertex;fillColor=yellow" : null);
 				for(DS_Path path : this.filesystem.getPathList()) {
 					Object edge = this.graph.createEdge(parent, null, path, this.vertices[path.getStart().getID()], this.vertices[path.getEnd().getID()], null);
-					if(path.isShortest()) this.graph.getModel().setStyle(edge, "defaultEdge;strokeColor=red");//;fillColor=black
+					if(this.route != null && this.route.contains(path)) this.graph.getModel().setStyle(edge, "defaultEdge;strokeColor=red");//;fillColor=black
 					this.graph.addEdge(edge, parent, this.vertices[path.getStart().getID()], this.vertices[path.getEnd().getID()], null);
 				}
 			}
@@ -296,21 +312,6 @@ public class UI_MapEditor extends JFrame implements ActionListener
 		((mxGraphModel)graph.getModel()).clear();
 	}
 
-	/**
-	 * Check for orphans (vertices with no connections on the map)
-	 * @return true if there are, false otherwise
-	 */
-	private boolean checkForOrphans()
-	{
-		for(Object vertex : this.vertices) {
-			if(vertex != null && this.graph.getModel().getEdgeCount(vertex) == 0) {
-				this.setApplicationStatus("Orphan detected (" + this.graph.getModel().getValue(vertex).toString() + "). Cannot proceed...");
-				return true;
-			}
-		}
-		return false;
-	}
-
 	/**
 	 * Handle any events performed by the application (button presses)
 	 * @param event description
@@ -320,7 +321,10 @@ public class UI_MapEditor extends JFrame implements ActionListener
 		if(event.getSource() == this.openMap) {
 			try {
 				this.filesystem = new PA_FileSystem(false);
-				this.dijkstra = new GS_Dijkstra(this.filesystem, this.searchProgress);
+				this.pathfinder = new GS_ShortestPathTree(this.filesystem, this.searchProgress);
+				this.depots = new GS_DepotAssignment(this.filesystem);
+				this.reachability = new GS_Reachability(this.filesystem);
+				this.route = null;
 				this.setApplicationStatus("File system loaded and initliazed...");
 				this.setToolSetStatus(true);
 				this.setProgress(0, 100, 100);
@@ -332,7 +336,10 @@ public class UI_MapEditor extends JFrame implements ActionListener
 		} else if(event.getSource() == this.newMap) {
 			try {
 				this.filesystem = new PA_FileSystem(true);
-				this.dijkstra = new GS_Dijkstra(this.filesystem, this.searchProgress);
+				this.pathfinder = new GS_ShortestPathTree(this.filesystem, this.searchProgress);
+				this.depots = new GS_DepotAssignment(this.filesystem);
+				this.reachability = new GS_Reachability(this.filesystem);
+				this.route = null;
 				this.filesystem.addHouse(new DS_House("Pizzeria", 50, 50));
 				this.setApplicationStatus("File system created and initliazed...");
 				this.setToolSetStatus(true);
@@ -442,7 +449,7 @@ public class UI_MapEditor extends JFrame implements ActionListener
 			}
 			this.moveSelectButton.setText(this.buttonText[mode]);
 			this.moveSelectButton.setToolTipText(this.tooltipText[mode]);
-			this.dijkstra.clear();
+			this.route = null;
 		}
 		this.updateMap();
 		this.updateStats();
@@ -490,11 +497,15 @@ public class UI_MapEditor extends JFrame implements ActionListener
 			}
 		} else if(this.isMoving == false && object != null && this.graph.getModel().getValue(object) instanceof DS_House) {
 			try {
-				if(!this.checkForOrphans())
-					this.dijkstra.search(this.filesystem.getHouseByID(0), (DS_House)this.graph.getModel().getValue(object));
+				this.route = null;
+				DS_House house = (DS_House)this.graph.getModel().getValue(object);
+				if(!this.reachability.isReachable(house))
+					throw new EX_Exception(1, ErrorType.ERROR_GRAPHSEARCHING);
+				this.route = this.pathfinder.search(this.depots.getDepot(house), house);
+				this.setApplicationStatus("Shortest path found (" + this.route.getSettledCount() + " houses searched)...");
 			} catch(EX_Exception e) {
 				if(e.isIDBased() && e.getID() == 1) {
-					this.setApplicationStatus("Destination unreachable from the pizzeria...");
+					this.setApplicationStatus("Destination unreachable from every pizzeria...");
 					this.searchProgress.setValue(0);
 				} else {
 					this.reporter.warning(e);